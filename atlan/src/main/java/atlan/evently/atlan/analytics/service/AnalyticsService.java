@@ -27,7 +27,7 @@ public class AnalyticsService {
     // Existing behavior: compute per-event stats (N+1 counts)
     @Transactional(readOnly = true)
     public List<EventStatsView> getEventStats() {
-        return events.findAll().stream().map(e -> {
+        return events.findAll().stream().filter(e -> e.getCanceledAt() == null).map(e -> {
             long confirmed = bookings.countByEvent_IdAndStatus(e.getId(), Booking.Status.CONFIRMED);
             double utilization = e.getCapacity() == 0 ? 0.0 : (confirmed * 100.0) / e.getCapacity();
             return new EventStatsView(e.getId(), e.getName(), e.getCapacity(), confirmed, utilization);
@@ -41,6 +41,7 @@ public class AnalyticsService {
         long totalEvents = allEvents.size();
 
         long sumCapacity = allEvents.stream()
+                .filter(e -> e.getCanceledAt() == null)
                 .map(Event::getCapacity)
                 .filter(c -> c != null)
                 .mapToLong(Integer::longValue)
@@ -0,0 +1,129 @@
+// src/main/java/atlan/evently/atlan/booking/alloc/SeatAllocator.java
+package atlan.evently.atlan.booking.alloc;
+
+import atlan.evently.atlan.event.model.Event;
+import atlan.evently.atlan.event.repo.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-JVM seat allocator for flash-sale events.
+ * - Enabled per event via booking.allocator.event-ids (comma-separated event ids).
+ * - Requests that cannot win a permit are rejected before queueing on the event row lock.
+ * - Winners still go through the conditional confirmed_count UPDATE, which stays the source of truth;
+ *   a permit is handed back automatically if the surrounding transaction does not commit.
+ * - Pools are periodically resynced from the event's seat counters to absorb seats freed or taken
+ *   outside this JVM (other nodes, waitlist promotion, admin capacity changes).
+ */
+@Component
+public class SeatAllocator {
+
+    /** A won seat permit; tied to the pool generation it was taken from. */
+    public static final class Permit {
+        private final Long eventId;
+        private final int stripe;
+        private final long generation;
+
+        private Permit(Long eventId, int stripe, long generation) {
+            this.eventId = eventId;
+            this.stripe = stripe;
+            this.generation = generation;
+        }
+
+        public Long getEventId() { return eventId; }
+    }
+
+    private final EventRepository events;
+    private final Set<Long> enabledEvents;
+    private final int stripeCount;
+    private final Map<Long, StripedSeatPool> pools = new ConcurrentHashMap<>();
+
+    public SeatAllocator(EventRepository events,
+                         @Value("${booking.allocator.event-ids:}") String eventIds,
+                         @Value("${booking.allocator.stripes:0}") int stripes) {
+        this.events = events;
+        this.enabledEvents = Arrays.stream(eventIds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    public boolean isEnabled(Long eventId) {
+        return enabledEvents.contains(eventId);
+    }
+
+    /**
+     * Try to win a seat permit; returns null when the event is sold out in memory.
+     * Must be called inside a transaction: the permit is returned on rollback.
+     */
+    public Permit tryAcquire(Long eventId) {
+        StripedSeatPool pool = pool(eventId);
+        if (pool == null) {
+            throw new IllegalArgumentException("Event not found");
+        }
+        long gen = pool.generation();
+        int stripe = pool.tryAcquire();
+        if (stripe < 0) return null;
+
+        Permit permit = new Permit(eventId, stripe, gen);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                pool.complete(permit.stripe, permit.generation, status == STATUS_COMMITTED);
+            }
+        });
+        return permit;
+    }
+
+    /** The database refused the seat: stop handing out permits until the next resync. */
+    public void drain(Long eventId) {
+        StripedSeatPool pool = pools.get(eventId);
+        if (pool != null) pool.drain();
+    }
+
+    /** Return a seat once the current transaction commits (cancellation path). */
+    public void releaseAfterCommit(Long eventId) {
+        StripedSeatPool pool = pools.get(eventId);
+        if (pool == null) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pool.release();
+            }
+        });
+    }
+
+    public int available(Long eventId) {
+        StripedSeatPool pool = pools.get(eventId);
+        return pool == null ? -1 : pool.available();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.allocator.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if (pools.isEmpty()) return;
+        for (Event e : events.findAllById(pools.keySet())) {
+            StripedSeatPool pool = pools.get(e.getId());
+            if (pool != null) pool.reset(e.freeSeats());
+        }
+    }
+
+    private StripedSeatPool pool(Long eventId) {
+        StripedSeatPool pool = pools.get(eventId);
+        if (pool != null) return pool;
+        Event e = events.findById(eventId).orElse(null);
+        if (e == null) return null;
+        return pools.computeIfAbsent(eventId,
+                id -> new StripedSeatPool(stripeCount, e.freeSeats()));
+    }
+}
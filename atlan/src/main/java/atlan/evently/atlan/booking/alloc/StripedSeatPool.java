@@ -0,0 +1,84 @@
+// src/main/java/atlan/evently/atlan/booking/alloc/StripedSeatPool.java
+package atlan.evently.atlan.booking.alloc;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat permits for one event split across CAS-updated stripes.
+ * - Each caller starts on a random stripe and probes the others only when it is empty,
+ *   so concurrent acquirers rarely contend on the same counter.
+ * - "Sold out" is a scan of the stripes; it never touches the database.
+ * - The generation is bumped by drain(); permits from an older generation are not returned,
+ *   so a pool the database has declared full cannot be refilled by rolled-back callers.
+ */
+final class StripedSeatPool {
+
+    private final AtomicIntegerArray stripes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+
+    StripedSeatPool(int stripeCount, int available) {
+        this.stripes = new AtomicIntegerArray(Math.max(1, stripeCount));
+        reset(available);
+    }
+
+    /** Returns the stripe the permit came from, or -1 when every stripe is empty. */
+    int tryAcquire() {
+        int n = stripes.length();
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            int idx = (start + i) % n;
+            int cur;
+            while ((cur = stripes.get(idx)) > 0) {
+                if (stripes.compareAndSet(idx, cur, cur - 1)) {
+                    inFlight.incrementAndGet();
+                    return idx;
+                }
+            }
+        }
+        return -1;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    /** Ends an in-flight permit; a permit whose transaction did not commit goes back to its stripe. */
+    void complete(int stripe, long permitGeneration, boolean committed) {
+        inFlight.decrementAndGet();
+        if (!committed && permitGeneration == generation.get()) {
+            stripes.incrementAndGet(stripe);
+        }
+    }
+
+    /** Adds a freed seat (e.g. committed cancellation) to a random stripe. */
+    void release() {
+        stripes.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes.length()));
+    }
+
+    /** Database reported the event full: empty the pool and orphan outstanding permits. */
+    void drain() {
+        generation.incrementAndGet();
+        for (int i = 0; i < stripes.length(); i++) stripes.set(i, 0);
+    }
+
+    /** Re-spreads free seats (capacity - confirmed) evenly, keeping room for permits still in flight. */
+    void reset(int freeSeats) {
+        int available = Math.max(0, freeSeats - inFlight.get());
+        int n = stripes.length();
+        int base = available / n;
+        int rem = available % n;
+        for (int i = 0; i < n; i++) {
+            stripes.set(i, base + (i < rem ? 1 : 0));
+        }
+    }
+
+    int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes.length(); i++) sum += stripes.get(i);
+        return sum;
+    }
+}
@@ -0,0 +1,76 @@
+// src/main/java/atlan/evently/atlan/booking/exec/AdaptiveLimit.java
+package atlan.evently.atlan.booking.exec;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm):
+ * - The limit scales by minRtt / sampleRtt, so when latency rises above the no-load baseline
+ *   (work is queueing on the row lock or the connection pool) it shrinks, and it grows back by
+ *   ~sqrt(limit) per sample while latency stays near the baseline.
+ * - Drops (timeouts, queue-full) halve the limit.
+ * - The baseline (minRtt) is re-probed every PROBE_INTERVAL samples so it can follow a slower database.
+ * acquire() is lock-free; the limit update on release() is synchronized but cheap.
+ */
+final class AdaptiveLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final int PROBE_INTERVAL = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samples;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int cur = inFlight.get();
+            if (cur >= (int) limit) return false;
+            if (inFlight.compareAndSet(cur, cur + 1)) return true;
+        }
+    }
+
+    /** Return a slot without feeding a sample (the work never ran). */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long rttNanos, boolean dropped) {
+        int before = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit / 2);
+                return;
+            }
+            if (++samples >= PROBE_INTERVAL) {
+                samples = 0;
+                minRttNanos = rttNanos;
+            } else if (rttNanos < minRttNanos) {
+                minRttNanos = rttNanos;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, (double) minRttNanos / Math.max(1, rttNanos)));
+            double target = limit * gradient + Math.sqrt(limit);
+            double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+            // Don't grow while the limit is not actually being used
+            if (before < limit / 2) next = Math.min(next, limit);
+            limit = Math.min(maxLimit, Math.max(minLimit, next));
+        }
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,152 @@
+// src/main/java/atlan/evently/atlan/booking/exec/BookingAdmissionControl.java
+package atlan.evently.atlan.booking.exec;
+
+import atlan.evently.atlan.common.web.RetryAfterException;
+import atlan.evently.atlan.event.repo.EventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for booking writes: caps in-flight booking work per event and across all events,
+ * with both caps adapting to observed latency (see AdaptiveLimit).
+ * - Checked on the request thread before any transaction is opened, so rejected requests never take
+ *   a pooled connection or join the event row-lock queue.
+ * - Rejections are a fast 429 with Retry-After; the global cap is kept below the connection pool size
+ *   so reads and the rest of the API keep connections during a flash sale.
+ * - Requests queued to a per-event executor (group commit, ACTOR mailbox) skip the global cap: those
+ *   executors' worker pools already bound how many connections they take.
+ * - 503s from downstream (mailbox full/timeout) count as drops and cut the limit.
+ * - A per-event limiter is only created for an event that exists (unknown ids get a 404) and is evicted,
+ *   together with its gauges, after booking.admission.event.idle-minutes without traffic; at most
+ *   booking.admission.event.max-events are kept.
+ * Metrics: booking.admission.limit / booking.admission.in-flight gauges tagged with the event ("all" for
+ * the global cap), and booking.admission.rejected tagged with the scope (event or global).
+ */
+@Component
+public class BookingAdmissionControl {
+
+    private static final String GLOBAL = "all";
+
+    private record Registered(AdaptiveLimit limit, Gauge limitGauge, Gauge inFlightGauge) {}
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meters;
+    private final EventRepository events;
+    private final AdaptiveLimit global;
+    private final Cache<Long, Registered> perEvent;
+    private final Counter rejectedGlobal;
+    private final Counter rejectedEvent;
+
+    public BookingAdmissionControl(MeterRegistry meters,
+                                   EventRepository events,
+                                   @Value("${booking.admission.enabled:true}") boolean enabled,
+                                   @Value("${booking.admission.event.initial-limit:10}") int initialLimit,
+                                   @Value("${booking.admission.event.min-limit:1}") int minLimit,
+                                   @Value("${booking.admission.event.max-limit:50}") int maxLimit,
+                                   @Value("${booking.admission.global.max-limit:8}") int globalMaxLimit,
+                                   @Value("${booking.admission.retry-after-seconds:1}") long retryAfterSeconds,
+                                   @Value("${booking.admission.event.idle-minutes:10}") long idleMinutes,
+                                   @Value("${booking.admission.event.max-events:10000}") long maxEvents) {
+        this.meters = meters;
+        this.events = events;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.global = register(GLOBAL, new AdaptiveLimit(globalMaxLimit, 1, globalMaxLimit)).limit();
+        this.perEvent = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .removalListener((Long id, Registered r, RemovalCause cause) -> {
+                    if (r != null) {
+                        meters.remove(r.limitGauge());
+                        meters.remove(r.inFlightGauge());
+                    }
+                })
+                .build();
+        this.rejectedGlobal = rejectedCounter("global");
+        this.rejectedEvent = rejectedCounter("event");
+    }
+
+    /** Runs the booking command if both the global and the event's limit admit it; otherwise 429. */
+    public <T> T execute(Long eventId, Supplier<T> command) {
+        return execute(eventId, false, command);
+    }
+
+    /**
+     * {@code queued}: the command hands its work to a per-event executor (group-commit batch or ACTOR mailbox)
+     * whose own workers bound its connection use, so only the event's limit applies. Holding a global slot
+     * while waiting in that queue would cap batch size and mailbox depth at the global limit.
+     */
+    public <T> T execute(Long eventId, boolean queued, Supplier<T> command) {
+        if (!enabled) return command.get();
+
+        boolean useGlobal = !queued;
+        AdaptiveLimit event = eventLimit(eventId);
+        if (useGlobal && !global.tryAcquire()) throw reject(rejectedGlobal);
+        if (!event.tryAcquire()) {
+            if (useGlobal) global.cancel();
+            throw reject(rejectedEvent);
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return command.get();
+        } catch (ResponseStatusException ex) {
+            dropped = ex.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE;
+            throw ex;
+        } finally {
+            long rtt = System.nanoTime() - start;
+            event.release(rtt, dropped);
+            if (useGlobal) global.release(rtt, dropped);
+        }
+    }
+
+    // Existence is checked only when a limiter is created; Caffeine does not cache the null for unknown ids
+    private AdaptiveLimit eventLimit(Long eventId) {
+        if (eventId == null) throw new IllegalArgumentException("eventId is required");
+        Registered r = perEvent.get(eventId, id -> events.existsById(id)
+                ? register(String.valueOf(id), new AdaptiveLimit(initialLimit, minLimit, maxLimit))
+                : null);
+        if (r == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found");
+        return r.limit();
+    }
+
+    private ResponseStatusException reject(Counter rejected) {
+        rejected.increment();
+        return new RetryAfterException("Too many booking requests, retry later", retryAfterSeconds);
+    }
+
+    private Counter rejectedCounter(String scope) {
+        return Counter.builder("booking.admission.rejected").tag("scope", scope)
+                .description("Booking requests rejected by admission control")
+                .register(meters);
+    }
+
+    private Registered register(String tag, AdaptiveLimit limit) {
+        Gauge limitGauge = Gauge.builder("booking.admission.limit", limit, AdaptiveLimit::limit).tag("event", tag)
+                .description("Current adaptive concurrency limit for booking writes")
+                .register(meters);
+        Gauge inFlightGauge = Gauge.builder("booking.admission.in-flight", limit, AdaptiveLimit::inFlight).tag("event", tag)
+                .description("Booking writes currently admitted")
+                .register(meters);
+        return new Registered(limit, limitGauge, inFlightGauge);
+    }
+}
@@ -0,0 +1,133 @@
+// src/main/java/atlan/evently/atlan/booking/exec/BookingRetryExecutor.java
+package atlan.evently.atlan.booking.exec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries a booking unit of work on transient concurrency failures, one fresh transaction per attempt.
+ * - A failed attempt is fully rolled back (persistence context included) before the next one starts,
+ *   so a retry never runs inside a transaction that is already marked rollback-only.
+ * - Retryable: optimistic lock conflicts, serialization failures (SQLSTATE 40001) and deadlocks (40P01).
+ *   Anything else (capacity, duplicates, validation) propagates on the first attempt.
+ * - Backoff is exponential with full jitter, capped at booking.retry.max-backoff-ms.
+ * - Metrics: booking.attempt (timer with histogram, tagged by outcome) and booking.retry (counter,
+ *   tagged by reason). Both are deliberately not tagged by event, which would mean a histogram per event;
+ *   the event of a retry or an exhausted attempt is logged instead.
+ * Must be called outside a transaction.
+ */
+@Component
+public class BookingRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRetryExecutor.class);
+
+    private final TransactionTemplate tx;
+    private final MeterRegistry meters;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public BookingRetryExecutor(PlatformTransactionManager txManager,
+                                MeterRegistry meters,
+                                @Value("${booking.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${booking.retry.base-backoff-ms:10}") long baseBackoffMs,
+                                @Value("${booking.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meters = meters;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(Long eventId, Supplier<T> attempt) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("BookingRetryExecutor must be called outside a transaction");
+        }
+        for (int n = 1; ; n++) {
+            long start = System.nanoTime();
+            try {
+                T result = tx.execute(s -> attempt.get());
+                attemptTimer("success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (RuntimeException ex) {
+                String reason = classify(ex);
+                boolean retry = reason != null && n < maxAttempts;
+                String outcome = reason == null ? "failed" : retry ? "retried" : "exhausted";
+                attemptTimer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (!retry) {
+                    if (reason != null) log.warn("Booking for event {} gave up after {} attempts ({})", eventId, n, reason);
+                    throw ex;
+                }
+                log.debug("Retrying booking for event {} after attempt {} ({})", eventId, n, reason);
+                retryCounter(reason).increment();
+                backoff(n);
+            }
+        }
+    }
+
+    /** Reason tag for a retryable failure, or null when the error is not transient. */
+    static String classify(Throwable ex) {
+        boolean pessimistic = false;
+        for (Throwable t = ex; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof OptimisticLockException || t instanceof OptimisticLockingFailureException) {
+                return "optimistic_lock";
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                switch (sql.getSQLState()) {
+                    case "40001": return "serialization";
+                    case "40P01": return "deadlock";
+                    default: break;
+                }
+            }
+            pessimistic |= t instanceof PessimisticLockingFailureException;
+        }
+        // Spring-translated deadlock/serialization failure whose SQLState was not found in the chain;
+        // lock timeouts (CannotAcquireLockException) are left to the caller
+        return pessimistic && !(ex instanceof CannotAcquireLockException) ? "deadlock" : null;
+    }
+
+    private void backoff(int attempt) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        if (cap <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off booking retry", e);
+        }
+    }
+
+    private Timer attemptTimer(String outcome) {
+        return Timer.builder("booking.attempt")
+                .tag("outcome", outcome)
+                .description("Latency of one booking transaction attempt")
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    private Counter retryCounter(String reason) {
+        return Counter.builder("booking.retry")
+                .tag("reason", reason)
+                .description("Booking attempts retried after a transient concurrency failure")
+                .register(meters);
+    }
+}
@@ -0,0 +1,212 @@
+// src/main/java/atlan/evently/atlan/booking/exec/EventMailboxExecutor.java
+package atlan.evently.atlan.booking.exec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer executor: commands for the same event run one at a time from a per-event mailbox,
+ * while different events run in parallel on a bounded worker pool.
+ * - A mailbox is scheduled on the pool at most once at a time, so same-event work never overlaps
+ *   and never waits on the database row lock of another same-event command.
+ * - A mailbox drains a bounded batch per turn and then yields, so one hot event cannot starve the rest.
+ * - A caller that times out cancels its command if it has not started yet, so a request reported as
+ *   failed never books later; a command already running is waited for and its real outcome returned.
+ * - Per-event metrics: booking.actor.queue.depth (gauge), booking.actor.wait (timer, enqueue to start)
+ *   and booking.actor.processed (counter; its rate is the event's throughput).
+ * Mailboxes idle for booking.actor.idle-ms are evicted together with their meters.
+ */
+@Component
+public class EventMailboxExecutor {
+
+    private static final int DRAIN_BATCH = 32;
+
+    private final ExecutorService workers;
+    private final MeterRegistry meters;
+    private final int mailboxCapacity;
+    private final long timeoutMs;
+    private final long idleNanos;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public EventMailboxExecutor(MeterRegistry meters,
+                                @Value("${booking.actor.workers:8}") int workers,
+                                @Value("${booking.actor.mailbox-capacity:1000}") int mailboxCapacity,
+                                @Value("${booking.actor.timeout-ms:5000}") long timeoutMs,
+                                @Value("${booking.actor.idle-ms:600000}") long idleMs) {
+        this.meters = meters;
+        this.mailboxCapacity = mailboxCapacity;
+        this.timeoutMs = timeoutMs;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMs);
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "booking-actor-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Runs the command on the event's mailbox and waits (bounded) for its result. */
+    public <T> T execute(Long eventId, Supplier<T> command) {
+        // Depth is taken inside compute, so evictIdle never removes a mailbox a submitter is about to use
+        Mailbox mb = mailboxes.compute(eventId, (id, cur) -> {
+            Mailbox m = cur != null ? cur : newMailbox(id);
+            m.depth.incrementAndGet();
+            m.lastUsedNanos = System.nanoTime();
+            return m;
+        });
+        if (mb.depth.get() > mailboxCapacity) {
+            mb.depth.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Booking queue full for event");
+        }
+
+        Task<T> task = new Task<>(command);
+        mb.queue.offer(task);
+        schedule(mb);
+
+        try {
+            try {
+                return task.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (task.cancel()) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Booking queue timeout");
+                }
+                // Already running: its transaction may commit, so report what actually happened
+                return task.result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for booking");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** Drop mailboxes (and their meters) that have been empty and idle for booking.actor.idle-ms. */
+    @Scheduled(fixedDelayString = "${booking.actor.evict-interval-ms:60000}")
+    void evictIdle() {
+        long now = System.nanoTime();
+        for (Long eventId : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(eventId, (id, mb) -> {
+                boolean idle = mb.depth.get() == 0 && !mb.scheduled.get() && now - mb.lastUsedNanos > idleNanos;
+                if (!idle) return mb;
+                mb.meters.forEach(meters::remove);
+                return null;
+            });
+        }
+    }
+
+    public int queueDepth(Long eventId) {
+        Mailbox mb = mailboxes.get(eventId);
+        return mb == null ? 0 : mb.depth.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private void schedule(Mailbox mb) {
+        if (mb.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(mb));
+        }
+    }
+
+    private void drain(Mailbox mb) {
+        try {
+            Task<?> t;
+            int n = 0;
+            while (n++ < DRAIN_BATCH && (t = mb.queue.poll()) != null) {
+                mb.depth.decrementAndGet();
+                if (!t.start()) continue; // its caller timed out and cancelled it
+                mb.waitTimer.record(System.nanoTime() - t.enqueuedAt, TimeUnit.NANOSECONDS);
+                t.run();
+                mb.processed.increment();
+            }
+        } finally {
+            mb.scheduled.set(false);
+            // A submitter may have enqueued after our last poll but lost the schedule race
+            if (!mb.queue.isEmpty()) schedule(mb);
+        }
+    }
+
+    private Mailbox newMailbox(Long eventId) {
+        String tag = String.valueOf(eventId);
+        Mailbox mb = new Mailbox(
+                Timer.builder("booking.actor.wait").tag("event", tag)
+                        .description("Time a booking command waited in its event mailbox")
+                        .register(meters),
+                Counter.builder("booking.actor.processed").tag("event", tag)
+                        .description("Booking commands executed for the event")
+                        .register(meters));
+        mb.meters.add(Gauge.builder("booking.actor.queue.depth", mb.depth, AtomicInteger::get).tag("event", tag)
+                .description("Booking commands queued for the event")
+                .register(meters));
+        return mb;
+    }
+
+    private static final class Mailbox {
+        final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final Timer waitTimer;
+        final Counter processed;
+        final List<Meter> meters = new ArrayList<>(3);
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Mailbox(Timer waitTimer, Counter processed) {
+            this.waitTimer = waitTimer;
+            this.processed = processed;
+            meters.add(waitTimer);
+            meters.add(processed);
+        }
+    }
+
+    private static final class Task<T> {
+        final Supplier<T> command;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+        // 0 = queued, 1 = started, 2 = cancelled by its caller
+        private final AtomicInteger state = new AtomicInteger();
+
+        Task(Supplier<T> command) {
+            this.command = command;
+        }
+
+        boolean start() {
+            return state.compareAndSet(0, 1);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(0, 2);
+        }
+
+        void run() {
+            try {
+                result.complete(command.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+// src/main/java/atlan/evently/atlan/booking/exec/GroupCommitBookingExecutor.java
+package atlan.evently.atlan.booking.exec;
+
+import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.repo.BookingBatchRepository;
+import atlan.evently.atlan.booking.repo.BookingRepository;
+import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.idempotency.repo.IdempotencyBatchRepository;
+import atlan.evently.atlan.idempotency.repo.IdempotencyBatchRepository.Claim;
+import atlan.evently.atlan.idempotency.repo.IdempotencyBatchRepository.Outcome;
+import atlan.evently.atlan.idempotency.service.IdempotencyService;
+import atlan.evently.atlan.user.repo.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Group-commit (micro-batching) booking path for hot events.
+ * Requests for the same event that arrive within booking.group-commit.window-ms are collected and
+ * executed together in ONE transaction:
+ * - one INSERT claims all idempotency keys, one UPDATE records all outcomes;
+ * - one event row lock, then one set query each for unknown users and existing bookings;
+ * - one confirmed_count UPDATE for the seats granted;
+ * - one multi-row INSERT for the bookings.
+ * Seats go to callers in arrival order. Each caller gets its own response or error, completed only
+ * after the batch commits. Keys already known to the store are handed back (null) so the caller
+ * replays them through the regular IdempotencyService path.
+ */
+@Component
+public class GroupCommitBookingExecutor {
+
+    private record Pending(String key, String endpoint, Long userId, String requestHash,
+                           CompletableFuture<ResponseEntity<BookingResponse>> result) {}
+
+    private static final class Batch {
+        final List<Pending> items = new ArrayList<>();
+        final AtomicBoolean closed = new AtomicBoolean();
+    }
+
+    private final UserRepository users;
+    private final BookingRepository bookings;
+    private final BookingBatchRepository bookingBatch;
+    private final EventRepository events;
+    private final IdempotencyBatchRepository idempotencyBatch;
+    private final IdempotencyService idempotency;
+    private final TransactionTemplate tx;
+    private final Set<Long> enabledEvents;
+    private final long windowMs;
+    private final int maxBatch;
+    private final long timeoutMs;
+
+    private final Map<Long, Batch> open = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService flushers;
+
+    public GroupCommitBookingExecutor(UserRepository users,
+                                      BookingRepository bookings,
+                                      BookingBatchRepository bookingBatch,
+                                      EventRepository events,
+                                      IdempotencyBatchRepository idempotencyBatch,
+                                      IdempotencyService idempotency,
+                                      PlatformTransactionManager txManager,
+                                      @Value("${booking.group-commit.event-ids:}") String eventIds,
+                                      @Value("${booking.group-commit.window-ms:5}") long windowMs,
+                                      @Value("${booking.group-commit.max-batch:200}") int maxBatch,
+                                      @Value("${booking.group-commit.workers:4}") int workers,
+                                      @Value("${booking.group-commit.timeout-ms:5000}") long timeoutMs) {
+        this.users = users;
+        this.bookings = bookings;
+        this.bookingBatch = bookingBatch;
+        this.events = events;
+        this.idempotencyBatch = idempotencyBatch;
+        this.idempotency = idempotency;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabledEvents = Arrays.stream(eventIds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.windowMs = windowMs;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.timeoutMs = timeoutMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-group-commit-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger seq = new AtomicInteger();
+        this.flushers = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "booking-group-commit-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public boolean isEnabled(Long eventId) {
+        return enabledEvents.contains(eventId);
+    }
+
+    /**
+     * Join the event's current batch and wait for its commit.
+     * Returns null when the key was already in the idempotency store (caller should replay normally).
+     */
+    public ResponseEntity<BookingResponse> submit(String key, String endpoint, Long userId, Long eventId, String requestHash) {
+        Pending p = new Pending(key, endpoint, userId, requestHash, new CompletableFuture<>());
+        open.compute(eventId, (id, batch) -> {
+            if (batch == null) {
+                Batch fresh = new Batch();
+                timer.schedule(() -> close(id, fresh), windowMs, TimeUnit.MILLISECONDS);
+                batch = fresh;
+            }
+            batch.items.add(p);
+            if (batch.items.size() >= maxBatch) {
+                Batch full = batch;
+                if (full.closed.compareAndSet(false, true)) flushers.execute(() -> flush(id, full.items));
+                return null; // next arrival starts a new batch
+            }
+            return batch;
+        });
+
+        try {
+            return p.result().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Booking batch timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for booking");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdown();
+        flushers.shutdown();
+    }
+
+    // Window elapsed: detach the batch (unless it already filled up) and flush it
+    private void close(Long eventId, Batch batch) {
+        open.remove(eventId, batch);
+        if (batch.closed.compareAndSet(false, true)) {
+            flushers.execute(() -> flush(eventId, batch.items));
+        }
+    }
+
+    private void flush(Long eventId, List<Pending> items) {
+        try {
+            List<Runnable> completions = tx.execute(s -> process(eventId, items));
+            // Only tell callers after the commit succeeded
+            if (completions != null) completions.forEach(Runnable::run);
+        } catch (RuntimeException ex) {
+            items.forEach(p -> p.result().completeExceptionally(ex));
+        }
+    }
+
+    private List<Runnable> process(Long eventId, List<Pending> items) {
+        List<Runnable> completions = new ArrayList<>(items.size());
+        OffsetDateTime now = OffsetDateTime.now();
+
+        // 1) Claim all idempotency keys at once; a key seen twice in the batch only claims once
+        Map<String, Pending> byKey = new LinkedHashMap<>();
+        for (Pending p : items) {
+            if (byKey.putIfAbsent(p.key() + "\n" + p.endpoint(), p) != null) {
+                completions.add(() -> p.result().complete(null));
+            }
+        }
+        List<Claim> claims = byKey.values().stream()
+                .map(p -> new Claim(p.key(), p.endpoint(), p.userId(), p.requestHash()))
+                .toList();
+        Set<String> claimed = idempotencyBatch.tryInsertAll(claims, now.plusDays(2));
+
+        List<Pending> fresh = new ArrayList<>();
+        byKey.forEach((k, p) -> {
+            if (claimed.contains(k)) fresh.add(p);
+            else completions.add(() -> p.result().complete(null));
+        });
+        if (fresh.isEmpty()) return completions;
+
+        // 2) One row lock for the whole batch; every other booking path for the event locks it too
+        Optional<Integer> free = events.lockFreeSeats(eventId);
+
+        // 3) Set-based guards, read under the lock so they see every booking committed before it
+        Set<Long> userIds = fresh.stream().map(Pending::userId).collect(Collectors.toSet());
+        Set<Long> knownUsers = new HashSet<>(users.findExistingIds(userIds));
+        Set<Long> alreadyBooked = new HashSet<>(bookings.findConfirmedUserIds(eventId, knownUsers.isEmpty() ? userIds : knownUsers));
+
+        List<Pending> granted = new ArrayList<>();
+        List<Outcome> outcomes = new ArrayList<>();
+        Set<Long> bookedInBatch = new HashSet<>();
+        int seats = free.orElse(0);
+        for (Pending p : fresh) {
+            RuntimeException error = null;
+            if (free.isEmpty()) {
+                error = new IllegalArgumentException("Event not found");
+            } else if (!knownUsers.contains(p.userId())) {
+                error = new IllegalArgumentException("User not found");
+            } else if (alreadyBooked.contains(p.userId()) || !bookedInBatch.add(p.userId())) {
+                error = new IllegalStateException("Active booking already exists");
+            } else if (granted.size() >= seats) {
+                bookedInBatch.remove(p.userId());
+                error = new IllegalStateException("Event at capacity");
+            }
+            if (error != null) {
+                RuntimeException err = error;
+                outcomes.add(new Outcome(p.key(), p.endpoint(), "FAILURE",
+                        IdempotencyService.failureCode(err), null, err.getMessage()));
+                completions.add(() -> p.result().completeExceptionally(err));
+            } else {
+                granted.add(p);
+            }
+        }
+
+        // 4) One multi-row INSERT for the granted seats + one counter UPDATE for the rows actually inserted
+        if (!granted.isEmpty()) {
+            Map<Long, Long> ids = bookingBatch.insertForUsers(eventId, granted.stream().map(Pending::userId).toList(), now);
+            events.addConfirmed(eventId, ids.size());
+            for (Pending p : granted) {
+                Long bookingId = ids.get(p.userId());
+                if (bookingId == null) { // safety net: the unique index skipped a row the set check missed
+                    RuntimeException err = new IllegalStateException("Active booking already exists");
+                    outcomes.add(new Outcome(p.key(), p.endpoint(), "FAILURE", 409, null, err.getMessage()));
+                    completions.add(() -> p.result().completeExceptionally(err));
+                    continue;
+                }
+                BookingResponse r = new BookingResponse();
+                r.setId(bookingId);
+                r.setUserId(p.userId());
+                r.setEventId(eventId);
+                r.setStatus(Booking.Status.CONFIRMED.name());
+                r.setBookedAt(now);
+                outcomes.add(new Outcome(p.key(), p.endpoint(), "SUCCESS", 201, bookingId, idempotency.write(r)));
+                completions.add(() -> p.result().complete(ResponseEntity.status(201).body(r)));
+            }
+        }
+
+        // 5) One UPDATE for every idempotency outcome in the batch
+        idempotencyBatch.recordOutcomes(outcomes);
+        return completions;
+    }
+}
@@ -0,0 +1,89 @@
+// src/main/java/atlan/evently/atlan/booking/hold/HashedTimingWheel.java
+package atlan.evently.atlan.booking.hold;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: O(1) schedule, amortized O(1) expiry, one ticker thread for any number of timers.
+ * - Timers are appended to a lock-free inbox and bucketed by the ticker (bucket = deadline tick mod size),
+ *   so callers never contend with expiry processing.
+ * - Each tick visits one bucket and fires the entries whose deadline tick has passed; entries that need
+ *   more turns of the wheel stay in place.
+ * - Everything that expires in a tick is handed to the callback as one list, so the caller can expire
+ *   it in a single transaction.
+ * Timers are not cancellable; the callback is expected to ignore items that were resolved meanwhile.
+ */
+public final class HashedTimingWheel<T> {
+
+    private record Entry<T>(T item, long deadlineTick) {}
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpire;
+    private final long startNanos = System.nanoTime();
+    private final ScheduledExecutorService ticker;
+    private long currentTick; // ticker thread only
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, String threadName, Consumer<List<T>> onExpire) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1) << 1); // round up to a power of two
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) buckets[i] = new ArrayDeque<>();
+        this.onExpire = onExpire;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Schedule {@code item} to expire after {@code delayMillis} (rounded up to the tick). */
+    public void schedule(T item, long delayMillis) {
+        long elapsed = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        inbox.add(new Entry<>(item, (elapsed + tickNanos - 1) / tickNanos));
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void advance() {
+        try {
+            long target = (System.nanoTime() - startNanos) / tickNanos;
+            List<T> expired = new ArrayList<>();
+            for (Entry<T> e; (e = inbox.poll()) != null; ) {
+                if (e.deadlineTick() <= currentTick) expired.add(e.item());
+                else buckets[(int) (e.deadlineTick() & mask)].add(e);
+            }
+            // Catch up if the ticker fell behind
+            while (currentTick <= target) {
+                Iterator<Entry<T>> it = buckets[(int) (currentTick & mask)].iterator();
+                while (it.hasNext()) {
+                    Entry<T> e = it.next();
+                    if (e.deadlineTick() <= currentTick) {
+                        expired.add(e.item());
+                        it.remove();
+                    }
+                }
+                currentTick++;
+            }
+            if (!expired.isEmpty()) onExpire.accept(expired);
+        } catch (RuntimeException ignored) {
+            // keep ticking; the backstop sweep in SeatHoldService covers anything lost here
+        }
+    }
+}
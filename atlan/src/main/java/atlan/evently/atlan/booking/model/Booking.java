@@ -13,7 +13,8 @@ import lombok.Setter;
         name = "bookings",
         indexes = {
                 @Index(name = "idx_bookings_event_id", columnList = "event_id"),
-                @Index(name = "idx_bookings_user_id",  columnList = "user_id")
+                @Index(name = "idx_bookings_user_id",  columnList = "user_id"),
+                @Index(name = "ix_bookings_user_booked", columnList = "user_id, booked_at DESC, id DESC")
         }
 )
 @NoArgsConstructor
@@ -45,9 +46,17 @@ public class Booking {
     @Column(name = "canceled_at")
     private OffsetDateTime canceledAt;
 
+    // Seat index within a group booking (0..n-1); single-seat bookings are always 0.
+    // Active seat 0 is a user's one booking per event (ux_bookings_active_user_event, see config.SchemaExtensions);
+    // group seats are kept distinct by ux_bookings_active_party_seat. Cancelling seat 0 renumbers another
+    // active seat of the party to 0 (BookingBatchRepository#handOverLeadSeat), so the number is not a stable seat label.
+    @Column(name = "party_seat", nullable = false, columnDefinition = "smallint default 0")
+    private Short partySeat = 0;
+
     @PrePersist
     void onCreate() {
         if (bookedAt == null) bookedAt = OffsetDateTime.now();
         if (status == null) status = Status.CONFIRMED;
+        if (partySeat == null) partySeat = 0;
     }
 }
@@ -0,0 +1,53 @@
+// src/main/java/atlan/evently/atlan/booking/model/SeatHold.java
+package atlan.evently.atlan.booking.model;
+
+import atlan.evently.atlan.event.model.Event;
+import atlan.evently.atlan.user.model.User;
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A seat reserved for a short time before it is confirmed into a Booking.
+ * Rows only live while the hold is active: confirm and expiry both delete them.
+ */
+@Entity
+@Table(
+        name = "seat_holds",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_seat_holds_event_user", columnNames = {"event_id", "user_id"})
+        },
+        indexes = {
+                @Index(name = "ix_seat_holds_expires_at", columnList = "expires_at")
+        }
+)
+@NoArgsConstructor
+@Getter
+@Setter
+public class SeatHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_seat_holds_user"))
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false, foreignKey = @ForeignKey(name = "fk_seat_holds_event"))
+    private Event event;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,247 @@
+// src/main/java/atlan/evently/atlan/booking/repo/BookingBatchRepository.java
+package atlan.evently.atlan.booking.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC booking writes that need a single statement with RETURNING.
+ * Booking ids are IDENTITY-generated, which disables Hibernate insert batching, so multi-row writes
+ * (group bookings, group-commit batches) go through here as one INSERT ... RETURNING per call;
+ * conditional status flips (cancellation) likewise return the row they changed.
+ * Runs on the same connection/transaction as the surrounding JPA work.
+ */
+@Repository
+public class BookingBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public BookingBatchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Insert a CONFIRMED single-seat booking unless the user already holds one for the event.
+     * Relies on the partial unique index ux_bookings_active_user_event; a conflict returns empty
+     * instead of raising, so the surrounding transaction stays usable.
+     */
+    public Optional<Long> insertConfirmedIfAbsent(Long userId, Long eventId, OffsetDateTime bookedAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("eventId", eventId)
+                .addValue("bookedAt", bookedAt);
+        List<Long> ids = jdbc.queryForList("""
+            insert into bookings (user_id, event_id, status, party_seat, booked_at)
+            values (:userId, :eventId, 'CONFIRMED', 0, :bookedAt)
+            on conflict (user_id, event_id) where status = 'CONFIRMED' and party_seat = 0 do nothing
+            returning id
+            """, params, Long.class);
+        return ids.stream().findFirst();
+    }
+
+    /** What the single-statement booking did; see {@link #bookIdempotent}. */
+    public record SingleStatementOutcome(boolean knownKey, boolean userExists, boolean eventExists,
+                                         boolean seatClaimed, Long bookingId, boolean recorded) {}
+
+    /**
+     * Whole booking in ONE round trip (data-modifying CTE): capacity check + seat claim, duplicate guard,
+     * booking insert and the idempotency record (written directly as SUCCESS with the booking id).
+     * Nothing is written when the key is already known. Sub-statements see the same snapshot, so a partial
+     * outcome (seat claimed but no booking, or booking but no record) must be rolled back by the caller.
+     * The record is written without a response_body: the caller serializes the response once the booking
+     * id is known and stores it in the same transaction.
+     */
+    public SingleStatementOutcome bookIdempotent(String key, String endpoint, Long userId, Long eventId,
+                                                 String requestHash, OffsetDateTime now, OffsetDateTime expiresAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("key", key)
+                .addValue("endpoint", endpoint)
+                .addValue("userId", userId)
+                .addValue("eventId", eventId)
+                .addValue("hash", requestHash)
+                .addValue("now", now)
+                .addValue("expiresAt", expiresAt);
+        return jdbc.queryForObject("""
+            with known as (
+              select 1 from idempotency_records where idempotency_key = :key and endpoint = :endpoint
+            ),
+            usr as (
+              select id from users where id = :userId
+            ),
+            seat as (
+              update events
+              set confirmed_count = confirmed_count + 1
+              where id = :eventId
+                and canceled_at is null
+                and confirmed_count + held_count < capacity
+                and not exists (select 1 from known)
+                and exists (select 1 from usr)
+              returning id
+            ),
+            ins as (
+              insert into bookings (user_id, event_id, status, party_seat, booked_at)
+              select :userId, seat.id, 'CONFIRMED', 0, :now from seat
+              on conflict (user_id, event_id) where status = 'CONFIRMED' and party_seat = 0 do nothing
+              returning id
+            ),
+            rec as (
+              insert into idempotency_records
+                (idempotency_key, endpoint, user_id, request_hash, status, response_code, booking_id,
+                 created_at, expires_at)
+              select :key, :endpoint, :userId, :hash, 'SUCCESS', 201, ins.id, :now, :expiresAt
+              from ins
+              on conflict (idempotency_key, endpoint) do nothing
+              returning id
+            )
+            select exists (select 1 from known)                      as known_key,
+                   exists (select 1 from usr)                        as user_exists,
+                   exists (select 1 from events where id = :eventId) as event_exists,
+                   exists (select 1 from seat)                       as seat_claimed,
+                   (select id from ins)                              as booking_id,
+                   exists (select 1 from rec)                        as recorded
+            """, params, (rs, i) -> new SingleStatementOutcome(
+                rs.getBoolean("known_key"),
+                rs.getBoolean("user_exists"),
+                rs.getBoolean("event_exists"),
+                rs.getBoolean("seat_claimed"),
+                rs.getObject("booking_id", Long.class),
+                rs.getBoolean("recorded")));
+    }
+
+    /** Row returned by a successful conditional cancel. */
+    public record CanceledRow(Long id, Long userId, Long eventId, short partySeat,
+                              OffsetDateTime bookedAt, OffsetDateTime canceledAt) {}
+
+    /**
+     * CONFIRMED -> CANCELED in one conditional UPDATE (row lock on the booking only, no entity load).
+     * With {@code ownerId} set, only that user's booking matches. Empty when nothing changed:
+     * unknown id, other owner or already canceled. Cancelling a group's seat 0 is followed by
+     * {@link #handOverLeadSeat}, in the same transaction.
+     */
+    public Optional<CanceledRow> cancelIfConfirmed(Long bookingId, Long ownerId, OffsetDateTime canceledAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("id", bookingId)
+                .addValue("ownerId", ownerId)
+                .addValue("canceledAt", canceledAt);
+        String sql = """
+            update bookings
+            set status = 'CANCELED', canceled_at = :canceledAt
+            where id = :id and status = 'CONFIRMED'
+            """ + (ownerId != null ? " and user_id = :ownerId" : "") + """
+
+            returning id, user_id, event_id, party_seat, booked_at, canceled_at
+            """;
+        return jdbc.query(sql, params, (rs, i) -> new CanceledRow(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getLong("event_id"),
+                rs.getShort("party_seat"),
+                rs.getObject("booked_at", OffsetDateTime.class),
+                rs.getObject("canceled_at", OffsetDateTime.class))).stream().findFirst();
+    }
+
+    /**
+     * After seat 0 of a group was cancelled, renumber the group's highest remaining active seat to 0, so
+     * the party keeps its slot in ux_bookings_active_user_event (the one-active-booking guard) and the
+     * user cannot open a second booking next to it. party_seat is storage only and not exposed.
+     * Must run in the cancel's transaction: a concurrent insert for the same user waits on the cancelled
+     * row until commit and then conflicts with the renumbered one. A candidate cancelled concurrently
+     * is skipped by the FOR UPDATE recheck, so the caller retries while active seats remain.
+     * Returns true when a seat took over or no active seat is left.
+     */
+    public boolean handOverLeadSeat(Long userId, Long eventId) {
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("eventId", eventId);
+        return Boolean.TRUE.equals(jdbc.queryForObject("""
+            with next as (
+              select id from bookings
+              where user_id = :userId and event_id = :eventId and status = 'CONFIRMED' and party_seat > 0
+              order by party_seat desc
+              limit 1
+              for update
+            ), moved as (
+              update bookings b set party_seat = 0
+              from next
+              where b.id = next.id
+              returning b.id
+            )
+            select exists (select 1 from moved)
+                or not exists (select 1 from bookings
+                               where user_id = :userId and event_id = :eventId
+                                 and status = 'CONFIRMED' and party_seat > 0)
+            """, params, Boolean.class));
+    }
+
+    /**
+     * Cancel every CONFIRMED booking of an event in one statement; returns the affected users' emails
+     * (one per cancelled row, so group bookings repeat). Caller should hold the event row lock.
+     */
+    public List<String> cancelAllConfirmedForEvent(Long eventId, OffsetDateTime canceledAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("canceledAt", canceledAt);
+        return jdbc.queryForList("""
+            update bookings b
+            set status = 'CANCELED', canceled_at = :canceledAt
+            from users u
+            where b.event_id = :eventId and b.status = 'CONFIRMED' and u.id = b.user_id
+            returning u.email
+            """, params, String.class);
+    }
+
+    /** Returned row of a group insert. */
+    public record SeatRow(Long id, short partySeat) {}
+
+    /**
+     * Insert {@code quantity} CONFIRMED rows (party_seat 0..quantity-1); returns them in seat order.
+     * Rows that collide on ux_bookings_active_party_seat are skipped, so fewer rows than requested
+     * means the user already holds a booking for the event (every active booking has a seat 0).
+     */
+    public List<SeatRow> insertGroup(Long userId, Long eventId, int quantity, OffsetDateTime bookedAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("eventId", eventId)
+                .addValue("last", quantity - 1)
+                .addValue("bookedAt", bookedAt);
+        List<SeatRow> rows = jdbc.query("""
+            insert into bookings (user_id, event_id, status, party_seat, booked_at)
+            select :userId, :eventId, 'CONFIRMED', s, :bookedAt
+            from generate_series(0, :last) as s
+            on conflict (user_id, event_id, party_seat) where status = 'CONFIRMED' do nothing
+            returning id, party_seat
+            """, params, (rs, i) -> new SeatRow(rs.getLong("id"), rs.getShort("party_seat")));
+        return rows.stream().sorted(Comparator.comparingInt(SeatRow::partySeat)).toList();
+    }
+
+    /**
+     * Insert one CONFIRMED single-seat row per user in one statement; returns userId -> booking id.
+     * Users who already hold an active booking for the event are skipped (absent from the result).
+     */
+    public Map<Long, Long> insertForUsers(Long eventId, List<Long> userIds, OffsetDateTime bookedAt) {
+        var params = new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("bookedAt", bookedAt);
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (i > 0) values.append(", ");
+            values.append("(:u").append(i).append(", :eventId, 'CONFIRMED', 0, :bookedAt)");
+            params.addValue("u" + i, userIds.get(i));
+        }
+        Map<Long, Long> ids = new HashMap<>();
+        jdbc.query("insert into bookings (user_id, event_id, status, party_seat, booked_at) values "
+                        + values
+                        + " on conflict (user_id, event_id) where status = 'CONFIRMED' and party_seat = 0 do nothing"
+                        + " returning id, user_id",
+                params, rs -> { ids.put(rs.getLong("user_id"), rs.getLong("id")); });
+        return ids;
+    }
+}
@@ -0,0 +1,18 @@
+// src/main/java/atlan/evently/atlan/booking/repo/BookingHistoryView.java
+package atlan.evently.atlan.booking.repo;
+
+import atlan.evently.atlan.booking.model.Booking;
+
+import java.time.OffsetDateTime;
+
+/** One row of a user's booking history, with the event's name and time from the same query. */
+public record BookingHistoryView(
+        Long id,
+        Long userId,
+        Long eventId,
+        String eventName,
+        OffsetDateTime eventStartTime,
+        Booking.Status status,
+        OffsetDateTime bookedAt,
+        OffsetDateTime canceledAt
+) {}
@@ -5,14 +5,18 @@ import atlan.evently.atlan.analytics.dto.MostBookedEventView;
 import atlan.evently.atlan.analytics.dto.PopularEventView;
 import atlan.evently.atlan.analytics.pro.VenueAggregateProjection;
 import atlan.evently.atlan.booking.model.Booking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
-import java.awt.print.Pageable;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -20,7 +24,59 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findByUser_IdAndEvent_IdAndStatus(Long userId, Long eventId, Booking.Status status);
 
-    java.util.List<Booking> findByUser_IdOrderByBookedAtDesc(Long userId);
+    // Group bookings hold several CONFIRMED rows per user+event, so guards use exists rather than a single-row find
+    boolean existsByUser_IdAndEvent_IdAndStatus(Long userId, Long eventId, Booking.Status status);
+
+    // Booking history, newest first, keyset-paginated on (booked_at, id) over ix_bookings_user_booked
+    @Query("""
+    select new atlan.evently.atlan.booking.repo.BookingHistoryView(
+        b.id, b.user.id, e.id, e.name, e.startTime, b.status, b.bookedAt, b.canceledAt
+    )
+    from Booking b join b.event e
+    where b.user.id = :userId
+    order by b.bookedAt desc, b.id desc
+""")
+    List<BookingHistoryView> findHistoryFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+    select new atlan.evently.atlan.booking.repo.BookingHistoryView(
+        b.id, b.user.id, e.id, e.name, e.startTime, b.status, b.bookedAt, b.canceledAt
+    )
+    from Booking b join b.event e
+    where b.user.id = :userId
+      and (b.bookedAt, b.id) < (:bookedAt, :id)
+    order by b.bookedAt desc, b.id desc
+""")
+    List<BookingHistoryView> findHistoryAfter(@Param("userId") Long userId,
+                                              @Param("bookedAt") OffsetDateTime bookedAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // Batch duplicate guard: which of these users already hold a confirmed booking for the event
+    @Query("select b.user.id from Booking b where b.event.id = :eventId and b.user.id in :userIds and b.status = atlan.evently.atlan.booking.model.Booking.Status.CONFIRMED")
+    List<Long> findConfirmedUserIds(@Param("eventId") Long eventId, @Param("userIds") java.util.Collection<Long> userIds);
+
+    // Admin export: forward-only, server-side cursor (fetch size) over DTO rows; caller must consume inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    select new atlan.evently.atlan.booking.repo.BookingHistoryView(
+        b.id, b.user.id, e.id, e.name, e.startTime, b.status, b.bookedAt, b.canceledAt
+    )
+    from Booking b join b.event e
+    where (:eventId is null or e.id = :eventId)
+      and (:from is null or b.bookedAt >= :from)
+      and (:to is null or b.bookedAt < :to)
+    order by b.id
+""")
+    Stream<BookingHistoryView> streamForExport(@Param("eventId") Long eventId,
+                                               @Param("from") OffsetDateTime from,
+                                               @Param("to") OffsetDateTime to);
+
+    @Query("select b.event.id from Booking b where b.id = :id")
+    Optional<Long> findEventIdById(@Param("id") Long id);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select b from Booking b join fetch b.event where b.id = :id")
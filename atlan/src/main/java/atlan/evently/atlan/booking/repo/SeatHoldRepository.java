@@ -0,0 +1,54 @@
+// src/main/java/atlan/evently/atlan/booking/repo/SeatHoldRepository.java
+package atlan.evently.atlan.booking.repo;
+
+import atlan.evently.atlan.booking.model.SeatHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+
+    interface ActiveHold {
+        Long getId();
+        OffsetDateTime getExpiresAt();
+    }
+
+    boolean existsByUser_IdAndEvent_Id(Long userId, Long eventId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from SeatHold h where h.id = :id")
+    Optional<SeatHold> findByIdForUpdate(@Param("id") Long id);
+
+    // Expiry candidates, locked so a concurrent confirm either wins first or sees the hold gone;
+    // callers pass at most SeatHoldService's expiry chunk of ids, well below the bind-parameter limit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from SeatHold h where h.id in :ids and h.expiresAt <= :now")
+    List<SeatHold> findExpiredForUpdate(@Param("ids") Collection<Long> ids, @Param("now") OffsetDateTime now);
+
+    // Backstop sweep (holds owned by a node that went away); range scan on ix_seat_holds_expires_at
+    @Query("select h.id from SeatHold h where h.expiresAt < :cutoff order by h.expiresAt")
+    List<Long> findIdsExpiredBefore(@Param("cutoff") OffsetDateTime cutoff, Pageable page);
+
+    // Bulk drop (event called off); pending expiry timers then find nothing to release.
+    // A hold locked by a confirm in progress is skipped instead of waited for: that confirm is itself
+    // waiting on the event row, and its seat conversion fails once the cancel has committed.
+    @Modifying
+    @Query(value = """
+      delete from seat_holds
+      where id in (select id from seat_holds where event_id = :eventId for update skip locked)
+    """, nativeQuery = true)
+    int deleteAllByEventId(@Param("eventId") Long eventId);
+
+    // Startup: re-arm timers for holds created before this JVM started, one keyset page at a time
+    @Query("select h.id as id, h.expiresAt as expiresAt from SeatHold h where h.id > :afterId order by h.id")
+    List<ActiveHold> findActivePage(@Param("afterId") long afterId, Pageable page);
+}
@@ -0,0 +1,109 @@
+// src/main/java/atlan/evently/atlan/booking/service/BookingBulkCancelService.java
+package atlan.evently.atlan.booking.service;
+
+import atlan.evently.atlan.booking.repo.BookingBatchRepository;
+import atlan.evently.atlan.booking.repo.SeatHoldRepository;
+import atlan.evently.atlan.booking.web.dto.BulkCancelResponse;
+import atlan.evently.atlan.caching.policy.DoNotCache;
+import atlan.evently.atlan.event.model.Event;
+import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.notification.EmailNotificationService;
+import atlan.evently.atlan.waitlist.repo.WaitlistRepository;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
+import atlan.evently.atlan.waitlist.service.WaitlistBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Admin "event called off": cancel every confirmed booking of an event set-based.
+ * - Event row locked first, so no booking for the event can commit in between.
+ * - One UPDATE ... RETURNING flips all CONFIRMED rows, one counter UPDATE returns the seats,
+ *   one DELETE clears the waitlist; all in the same transaction.
+ * - The event is marked cancelled (canceled_at) in that transaction too: every seat-claiming statement
+ *   checks it, so no new booking or hold fits, and listings and analytics leave it out; its capacity is
+ *   kept. Outstanding seat holds are deleted so none can be confirmed afterwards.
+ * - Emails are queued only after commit, in batches of booking.bulk-cancel.notify-batch-size,
+ *   each batch one async send.
+ */
+@Service
+@DoNotCache
+public class BookingBulkCancelService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBulkCancelService.class);
+
+    private final BookingBatchRepository bookingBatch;
+    private final EventRepository events;
+    private final SeatHoldRepository holds;
+    private final WaitlistRepository waitlist;
+    private final WaitlistTicketRepository waitlistTickets;
+    private final WaitlistBroadcaster waitlistBroadcaster;
+    private final EmailNotificationService email;
+    private final int notifyBatchSize;
+
+    public BookingBulkCancelService(BookingBatchRepository bookingBatch,
+                                    EventRepository events,
+                                    SeatHoldRepository holds,
+                                    WaitlistRepository waitlist,
+                                    WaitlistTicketRepository waitlistTickets,
+                                    WaitlistBroadcaster waitlistBroadcaster,
+                                    EmailNotificationService email,
+                                    @Value("${booking.bulk-cancel.notify-batch-size:500}") int notifyBatchSize) {
+        this.bookingBatch = bookingBatch;
+        this.events = events;
+        this.holds = holds;
+        this.waitlist = waitlist;
+        this.waitlistTickets = waitlistTickets;
+        this.waitlistBroadcaster = waitlistBroadcaster;
+        this.email = email;
+        this.notifyBatchSize = Math.max(1, notifyBatchSize);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = {"eventDetail", "eventListUpcoming"}, allEntries = true)
+    public BulkCancelResponse cancelAllForEvent(Long eventId) {
+        events.lockRowById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        Event e = events.findById(eventId).orElseThrow();
+        String eventName = e.getName();
+        OffsetDateTime startTime = e.getStartTime();
+
+        List<String> emails = bookingBatch.cancelAllConfirmedForEvent(eventId, OffsetDateTime.now());
+        if (!emails.isEmpty()) {
+            events.addConfirmed(eventId, -emails.size());
+        }
+        holds.deleteAllByEventId(eventId);
+        events.closeForCancellation(eventId, OffsetDateTime.now());
+        int cleared = waitlist.deleteAllByEventId(eventId);
+        waitlistTickets.markAllServed(eventId);
+        waitlistBroadcaster.headAdvancedAfterCommit(eventId);
+
+        // Distinct recipients (group bookings return one row per seat)
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(emails));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (int i = 0; i < recipients.size(); i += notifyBatchSize) {
+                    email.sendEventCancellation(eventName, startTime,
+                            List.copyOf(recipients.subList(i, Math.min(i + notifyBatchSize, recipients.size()))));
+                }
+            }
+        });
+
+        log.info("Bulk-cancelled event {}: {} bookings, {} waitlist entries, {} users to notify",
+                eventId, emails.size(), cleared, recipients.size());
+        return new BulkCancelResponse(eventId, emails.size(), cleared, recipients.size());
+    }
+}
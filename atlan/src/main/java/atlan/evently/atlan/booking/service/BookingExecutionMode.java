@@ -0,0 +1,12 @@
+// src/main/java/atlan/evently/atlan/booking/service/BookingExecutionMode.java
+package atlan.evently.atlan.booking.service;
+
+/**
+ * How booking/cancel commands reach the database.
+ * LOCKING: run on the request thread; same-event writers are serialized by the event row lock.
+ * ACTOR:   run on the event's serial mailbox (EventMailboxExecutor); same-event writers are serialized in the JVM.
+ */
+public enum BookingExecutionMode {
+    LOCKING,
+    ACTOR
+}
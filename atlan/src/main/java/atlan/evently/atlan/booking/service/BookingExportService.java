@@ -0,0 +1,99 @@
+// src/main/java/atlan/evently/atlan/booking/service/BookingExportService.java
+package atlan.evently.atlan.booking.service;
+
+import atlan.evently.atlan.booking.repo.BookingHistoryView;
+import atlan.evently.atlan.booking.repo.BookingRepository;
+import atlan.evently.atlan.booking.web.BookingMapper;
+import atlan.evently.atlan.caching.policy.DoNotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams bookings to an OutputStream as NDJSON or CSV with constant memory:
+ * - Rows come from a forward-only JDBC cursor (fetch size 500) as DTO projections, so nothing
+ *   accumulates in the persistence context and at most one fetch batch is in memory.
+ * - Runs in its own read-only transaction because the response body is written on an async thread,
+ *   after the controller method has returned.
+ */
+@Service
+@DoNotCache
+public class BookingExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Logger log = LoggerFactory.getLogger(BookingExportService.class);
+    private static final String CSV_HEADER = "id,userId,eventId,eventName,eventStartTime,status,bookedAt,canceledAt";
+
+    private final BookingRepository bookings;
+    private final ObjectWriter json;
+    private final TransactionTemplate readOnlyTx;
+
+    public BookingExportService(BookingRepository bookings, ObjectMapper mapper, PlatformTransactionManager txManager) {
+        this.bookings = bookings;
+        this.json = mapper.writer();
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public void export(Format format, Long eventId, OffsetDateTime from, OffsetDateTime to, OutputStream out) {
+        long rows = readOnlyTx.execute(s -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            try (Stream<BookingHistoryView> stream = bookings.streamForExport(eventId, from, to)) {
+                long n = 0;
+                if (format == Format.CSV) w.write(CSV_HEADER + "\n");
+                for (Iterator<BookingHistoryView> it = stream.iterator(); it.hasNext(); n++) {
+                    BookingHistoryView v = it.next();
+                    if (format == Format.CSV) {
+                        writeCsv(w, v);
+                    } else {
+                        w.write(json.writeValueAsString(BookingMapper.toResponse(v)));
+                        w.write('\n');
+                    }
+                }
+                w.flush();
+                return n;
+            } catch (IOException ex) {
+                // Client went away mid-download; the cursor is closed by try-with-resources
+                throw new UncheckedIOException(ex);
+            }
+        });
+        log.info("Exported {} bookings as {} (eventId={}, from={}, to={})", rows, format, eventId, from, to);
+    }
+
+    private static void writeCsv(Writer w, BookingHistoryView v) throws IOException {
+        w.write(String.valueOf(v.id()));
+        w.write(',');
+        w.write(String.valueOf(v.userId()));
+        w.write(',');
+        w.write(String.valueOf(v.eventId()));
+        w.write(',');
+        w.write(csv(v.eventName()));
+        w.write(',');
+        w.write(v.eventStartTime() == null ? "" : v.eventStartTime().toString());
+        w.write(',');
+        w.write(v.status().name());
+        w.write(',');
+        w.write(v.bookedAt() == null ? "" : v.bookedAt().toString());
+        w.write(',');
+        w.write(v.canceledAt() == null ? "" : v.canceledAt().toString());
+        w.write('\n');
+    }
+
+    // RFC 4180 quoting
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,16 +1,28 @@
 package atlan.evently.atlan.booking.service;
 
+import atlan.evently.atlan.booking.alloc.SeatAllocator;
+import atlan.evently.atlan.booking.exec.EventMailboxExecutor;
 import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.repo.BookingBatchRepository;
+import atlan.evently.atlan.booking.repo.BookingHistoryView;
 import atlan.evently.atlan.booking.repo.BookingRepository;
+import atlan.evently.atlan.booking.web.BookingMapper;
 import atlan.evently.atlan.caching.policy.DoNotCache;
 import atlan.evently.atlan.event.model.Event;
 import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.idempotency.service.IdempotencyService;
 import atlan.evently.atlan.user.model.User;
 import atlan.evently.atlan.user.service.UserService;
-import jakarta.persistence.OptimisticLockException;
+import atlan.evently.atlan.waitlist.service.WaitlistPromoter;
 import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -19,115 +31,307 @@ import org.springframework.web.server.ResponseStatusException;
 @DoNotCache
 public class BookingService {
 
+    private static final int DEFAULT_HISTORY_PAGE = 50;
+    private static final int MAX_HISTORY_PAGE = 200;
+
     private final BookingRepository bookings;
+    private final BookingBatchRepository bookingBatch;
     private final EventRepository events;
     private final UserService users;
+    private final SeatAllocator allocator;
+    private final EventMailboxExecutor mailbox;
+    private final IdempotencyService idempotency;
+    private final WaitlistPromoter waitlistPromoter;
+    private final BookingExecutionMode mode;
+    private final boolean singleStatement;
 
-    public BookingService(BookingRepository bookings, EventRepository events, UserService users) {
+    public BookingService(BookingRepository bookings, BookingBatchRepository bookingBatch,
+                          EventRepository events, UserService users, SeatAllocator allocator,
+                          EventMailboxExecutor mailbox, IdempotencyService idempotency,
+                          WaitlistPromoter waitlistPromoter,
+                          @Value("${booking.execution-mode:LOCKING}") BookingExecutionMode mode,
+                          @Value("${booking.single-statement.enabled:false}") boolean singleStatement) {
         this.bookings = bookings;
+        this.bookingBatch = bookingBatch;
         this.events = events;
         this.users = users;
+        this.allocator = allocator;
+        this.mailbox = mailbox;
+        this.idempotency = idempotency;
+        this.waitlistPromoter = waitlistPromoter;
+        this.mode = mode;
+        this.singleStatement = singleStatement;
+    }
+
+    /**
+     * Run a capacity-affecting command for an event under the configured execution mode:
+     * - LOCKING: inline on the caller thread; the event row lock serializes same-event writers.
+     * - ACTOR: on the event's serial mailbox, so same-event commands never queue on the row lock
+     *   (or hold a connection while waiting); the command opens its own transaction on the worker.
+     */
+    public <T> T dispatch(Long eventId, Supplier<T> command) {
+        return mode == BookingExecutionMode.ACTOR ? mailbox.execute(eventId, command) : command.get();
+    }
+
+    /** Whether {@link #dispatch} queues commands on a per-event mailbox rather than running them in place. */
+    public boolean isQueued() {
+        return mode == BookingExecutionMode.ACTOR;
+    }
+
+    /** Same as {@link #dispatch} for commands addressed by booking id (cancel). */
+    public <T> T dispatchForBooking(Long bookingId, Supplier<T> command) {
+        if (mode != BookingExecutionMode.ACTOR) return command.get();
+        return bookings.findEventIdById(bookingId)
+                .map(eventId -> mailbox.execute(eventId, command))
+                .orElseGet(command); // unknown id: let the command report 404
     }
 
     /**
      * Create a booking atomically with concurrency control:
-     * - Locks the Event row (via repository method) so concurrent writers collide predictably.
-     * - Prevents duplicate active booking for the same user and event.
-     * - Enforces capacity using the current confirmed count vs. event capacity.
-     * Retries on OptimisticLockException a few times to tolerate races.
+     * - Claims a seat with a single conditional UPDATE on the event's confirmed_count, which also
+     *   row-locks the event so concurrent writers for the same event are serialized until commit.
+     * - Prevents duplicate active booking for the same user and event via a partial unique index
+     *   (INSERT ... ON CONFLICT DO NOTHING), not a read-then-insert.
+     * - Capacity cost is constant: no COUNT(*) over bookings on the hot path.
+     * - For flash-sale events with the in-memory SeatAllocator enabled, a request must first win a permit;
+     *   sold-out requests fail fast instead of queueing on the event row lock.
+     * Transient conflicts are not retried here: retrying inside the same (rollback-only) transaction
+     * cannot succeed. Callers wrap the whole unit of work in BookingRetryExecutor instead.
      */
     @DoNotCache
     @Transactional
     public Booking createBooking(Long userId, Long eventId) {
-        int attempts = 0;
-        while (true) {
-            try {
-                return attemptCreate(userId, eventId);
-            } catch (OptimisticLockException e) {
-                if (++attempts >= 3) throw e;
-            }
+        // Permit is handed back automatically if this transaction rolls back
+        if (allocator.isEnabled(eventId) && allocator.tryAcquire(eventId) == null) {
+            throw new IllegalStateException("Event at capacity");
         }
-    }
-
-    private Booking attemptCreate(Long userId, Long eventId) {
         User u = users.getById(userId);
 
-        // Lock event row (repository uses OPTIMISTIC_FORCE_INCREMENT/PESSIMISTIC lock under the hood)
-        Event e = events.findByIdForUpdate(eventId)
-                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
-
-        // Guard: no duplicate active booking per user+event
-        bookings.findByUser_IdAndEvent_IdAndStatus(u.getId(), e.getId(), Booking.Status.CONFIRMED)
-                .ifPresent(b -> { throw new IllegalStateException("Active booking already exists"); });
-
-        // Capacity guard (confirmed count < capacity)
-        long activeCount = bookings.countByEvent_IdAndStatus(e.getId(), Booking.Status.CONFIRMED);
-        if (activeCount >= e.getCapacity()) {
+        // Claim a seat (UPDATE ... WHERE confirmed_count + held_count < capacity); the row lock it takes is held until commit
+        if (events.tryReserveSeat(eventId) == 0) {
+            if (!events.existsById(eventId)) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            allocator.drain(eventId);
             throw new IllegalStateException("Event at capacity");
         }
 
+        // Duplicate guard is the partial unique index: no pre-read, and it holds even without the event lock.
+        // On conflict nothing is inserted and the rollback returns the claimed seat.
+        OffsetDateTime now = OffsetDateTime.now();
+        Long id = bookingBatch.insertConfirmedIfAbsent(u.getId(), eventId, now)
+                .orElseThrow(() -> new IllegalStateException("Active booking already exists"));
+
         Booking b = new Booking();
+        b.setId(id);
         b.setUser(u);
-        b.setEvent(e);
+        b.setEvent(events.getReferenceById(eventId));
         b.setStatus(Booking.Status.CONFIRMED);
-        b.setBookedAt(OffsetDateTime.now());
-        return bookings.save(b);
+        b.setBookedAt(now);
+        return b;
+    }
+
+    /** Whether POST /bookings may use {@link #createBookingSingleStatement} for this event. */
+    public boolean isSingleStatementEnabled(Long eventId) {
+        // The in-memory allocator needs its permit bookkeeping around the seat claim, so it keeps the regular path
+        return singleStatement && !allocator.isEnabled(eventId);
     }
 
     /**
-     * Cancel a booking with ownership/admin enforcement:
-     * - Admin path locks booking by id; owner path locks booking by (id,userId).
-     * - If already cancelled, returns as-is (idempotent).
-     * - Locks the Event row to serialize capacity-affecting operations.
-     * Capacity is derived from confirmed count vs. capacity, so no explicit counter increment is needed.
+     * Idempotent booking in a single statement (see BookingBatchRepository#bookIdempotent): one round trip
+     * instead of key insert + user load + seat claim + insert + two record updates.
+     * Returns null when the key is already known, so the caller replays it through IdempotencyService.
+     * Errors map to the same exceptions (and HTTP codes) as the regular path; any partial write is undone
+     * by throwing, which rolls back the caller's transaction, and the failure is then stored for replay.
      */
     @DoNotCache
     @Transactional
-    public Booking cancelBooking(Long bookingId, Long requesterUserId, boolean isAdmin) {
-        Booking b;
-        if (isAdmin) {
-            b = bookings.findByIdForUpdate(bookingId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found"));
-        } else {
-            if (requesterUserId == null) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthenticated");
+    public Booking createBookingSingleStatement(String key, String endpoint, Long userId, Long eventId, String requestHash) {
+        OffsetDateTime now = OffsetDateTime.now();
+        BookingBatchRepository.SingleStatementOutcome r = bookingBatch.bookIdempotent(
+                key, endpoint, userId, eventId, requestHash, now, now.plusDays(2));
+        if (r.knownKey()) return null;
+        RuntimeException failure = !r.userExists() ? new IllegalArgumentException("User not found")
+                : !r.eventExists() ? new IllegalArgumentException("Event not found")
+                : !r.seatClaimed() ? new IllegalStateException("Event at capacity")
+                : r.bookingId() == null ? new IllegalStateException("Active booking already exists")
+                : null;
+        // Stored as FAILURE once the rollback is done, same as the regular path
+        if (failure != null) throw idempotency.failedAfterRollback(key, endpoint, userId, requestHash, failure);
+        if (!r.recorded()) throw new IllegalStateException("Request with this Idempotency-Key is in progress");
+
+        Booking b = new Booking();
+        b.setId(r.bookingId());
+        b.setUser(users.getReferenceById(userId));
+        b.setEvent(events.getReferenceById(eventId));
+        b.setStatus(Booking.Status.CONFIRMED);
+        b.setBookedAt(now);
+        // Same body the regular path stores, serialized from the mapped response now that the id is known
+        idempotency.storeSuccessBody(key, endpoint, BookingMapper.toResponse(b));
+        return b;
+    }
+
+    /**
+     * Create a group booking of {@code quantity} seats for one user, all-or-nothing:
+     * - One conditional UPDATE claims every seat (confirmed_count + n <= capacity) and locks the event row once.
+     * - All rows are written by a single multi-row INSERT; the active-booking unique index is the duplicate guard.
+     * Any failure rolls back the counter and the rows together.
+     */
+    @DoNotCache
+    @Transactional
+    public List<Booking> createGroupBooking(Long userId, Long eventId, int quantity) {
+        if (quantity < 1 || quantity > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("quantity must be between 1 and " + Short.MAX_VALUE);
+        }
+        User u = users.getById(userId);
+
+        if (events.tryReserveSeats(eventId, quantity) == 0) {
+            if (!events.existsById(eventId)) {
+                throw new IllegalArgumentException("Event not found");
             }
-            b = bookings.findByIdAndUserIdForUpdate(bookingId, requesterUserId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to cancel this booking"));
+            throw new IllegalStateException("Not enough seats for group of " + quantity);
         }
 
-        if (b.getStatus() == Booking.Status.CANCELED) {
-            return b;
+        Event e = events.getReferenceById(eventId);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<BookingBatchRepository.SeatRow> rows = bookingBatch.insertGroup(u.getId(), eventId, quantity, now);
+        if (rows.size() < quantity) {
+            // Collided with the user's active booking on the unique index; rollback undoes rows and seats
+            throw new IllegalStateException("Active booking already exists");
         }
+        return rows.stream()
+                .map(row -> {
+                    Booking b = new Booking();
+                    b.setId(row.id());
+                    b.setUser(u);
+                    b.setEvent(e);
+                    b.setStatus(Booking.Status.CONFIRMED);
+                    b.setPartySeat(row.partySeat());
+                    b.setBookedAt(now);
+                    return b;
+                })
+                .toList();
+    }
 
-        // Lock event row to keep capacity-affecting operations serialized
-        events.findByIdForUpdate(b.getEvent().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+    /**
+     * Cancel a booking with ownership/admin enforcement, lock-light:
+     * - One conditional UPDATE flips CONFIRMED -> CANCELED (owner-scoped unless admin); it locks only the
+     *   booking row, loads no entity and does not touch the event's version, so concurrent bookings
+     *   for the same event are never aborted by a cancellation.
+     * - The seat goes back via the conditional confirmed_count UPDATE (a short event row lock).
+     * - Any seat of a group can be cancelled; when it is seat 0, another active seat of the party takes
+     *   over its place in the one-active-booking guard.
+     * - Nothing changed: already cancelled is returned as-is (idempotent); otherwise 404 (admin) / 403 (owner).
+     */
+    @DoNotCache
+    @Transactional
+    public Booking cancelBooking(Long bookingId, Long requesterUserId, boolean isAdmin) {
+        if (!isAdmin && requesterUserId == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthenticated");
+        }
+        Optional<BookingBatchRepository.CanceledRow> flipped =
+                bookingBatch.cancelIfConfirmed(bookingId, isAdmin ? null : requesterUserId, OffsetDateTime.now());
+        if (flipped.isEmpty()) {
+            Booking existing = bookings.findById(bookingId)
+                    .filter(b -> isAdmin || b.getUser().getId().equals(requesterUserId))
+                    .orElseThrow(() -> isAdmin
+                            ? new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found")
+                            : new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to cancel this booking"));
+            if (existing.getStatus() == Booking.Status.CANCELED) {
+                return existing;
+            }
+            // Still CONFIRMED and ours, yet the UPDATE matched nothing: only possible under a concurrent flip-back
+            throw new IllegalStateException("Booking not cancellable");
+        }
 
-        // Flip status
+        BookingBatchRepository.CanceledRow row = flipped.get();
+        if (row.partySeat() == 0) {
+            // A group's remaining seats keep the one-active-booking guard (no-op for a single seat)
+            boolean handedOver = false;
+            for (int attempt = 0; attempt < 3 && !handedOver; attempt++) {
+                handedOver = bookingBatch.handOverLeadSeat(row.userId(), row.eventId());
+            }
+            if (!handedOver) throw new IllegalStateException("Booking not cancellable, retry");
+        }
+        // A counter already at 0 means it drifted and is left to SeatCounterReconciler
+        events.releaseSeat(row.eventId());
+        allocator.releaseAfterCommit(row.eventId());
+        waitlistPromoter.seatsFreedAfterCommit(row.eventId());
+
+        Booking b = new Booking();
+        b.setId(row.id());
+        b.setUser(users.getReferenceById(row.userId()));
+        b.setEvent(events.getReferenceById(row.eventId()));
         b.setStatus(Booking.Status.CANCELED);
-        b.setCanceledAt(OffsetDateTime.now());
+        b.setBookedAt(row.bookedAt());
+        b.setCanceledAt(row.canceledAt());
         return b;
     }
 
+    /** One page of a user's booking history; {@code nextCursor} is null on the last page. */
+    public record HistoryPage(List<BookingHistoryView> items, String nextCursor) {}
+
+    /**
+     * A user's bookings, newest first, keyset-paginated on (booked_at, id):
+     * - Each page is an index range scan on ix_bookings_user_booked, so cost does not grow with history size.
+     * - Rows are DTO projections joined with the event (name, start time); no managed entities, no follow-up calls.
+     * The cursor is opaque to clients: base64url of "bookedAt|id" of the last row returned.
+     * Without a cursor or limit the whole history is returned in one list, as before pagination existed.
+     * Unknown user -> 404 (checked only when there are no rows).
+     */
     @DoNotCache
-    public List<Booking> findAll() {
-        return bookings.findAll();
+    public HistoryPage listUserBookings(Long userId, String cursor, Integer limit) {
+        HistoryPage result = (cursor == null || cursor.isBlank()) && limit == null
+                ? new HistoryPage(bookings.findHistoryFirstPage(userId, Limit.unlimited()), null)
+                : historyPage(userId, cursor, limit == null ? DEFAULT_HISTORY_PAGE : limit);
+        if (result.items().isEmpty() && !users.exists(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return result;
     }
 
-    @DoNotCache
-    public List<Booking> listUserBookings(Long userId) {
-        return bookings.findByUser_IdOrderByBookedAtDesc(userId);
+    private HistoryPage historyPage(Long userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+        Limit fetch = Limit.of(size + 1); // one extra row tells us whether there is a next page
+        List<BookingHistoryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookings.findHistoryFirstPage(userId, fetch);
+        } else {
+            String[] parts = decodeCursor(cursor);
+            rows = bookings.findHistoryAfter(userId, OffsetDateTime.parse(parts[0]), Long.valueOf(parts[1]), fetch);
+        }
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+        List<BookingHistoryView> page = rows.subList(0, size);
+        BookingHistoryView last = page.get(size - 1);
+        return new HistoryPage(page, encodeCursor(last.bookedAt(), last.id()));
+    }
+
+    private static String encodeCursor(OffsetDateTime bookedAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((bookedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            if (parts.length != 2) throw new IllegalArgumentException();
+            OffsetDateTime.parse(parts[0]);
+            Long.valueOf(parts[1]);
+            return parts;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     /**
-     * Live availability computed from capacity - confirmed; avoids stale cache.
+     * Live availability computed from capacity - confirmed_count - held_count; avoids stale cache.
      */
     @DoNotCache
     public boolean isAvailable(Long eventId) {
         Event e = events.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
-        long activeCount = bookings.countByEvent_IdAndStatus(e.getId(), Booking.Status.CONFIRMED);
-        return activeCount < e.getCapacity();
+        return e.freeSeats() > 0;
     }
 }
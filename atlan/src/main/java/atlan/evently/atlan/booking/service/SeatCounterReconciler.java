@@ -0,0 +1,70 @@
+// src/main/java/atlan/evently/atlan/booking/service/SeatCounterReconciler.java
+package atlan.evently.atlan.booking.service;
+
+import atlan.evently.atlan.event.repo.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Periodically checks each event's maintained confirmed_count / held_count against the
+ * bookings and seat_holds tables.
+ * - Detection is one grouped query over all events (no per-event N+1 counts).
+ * - Each drifted event is repaired in its own short transaction under the event row lock,
+ *   so the recount cannot interleave with a booking or cancellation on that event.
+ * - The first pass runs synchronously at startup, before the web server accepts requests, and always
+ *   repairs: counters of events created before the columns existed start at 0, and the conditional
+ *   seat UPDATEs would overbook them until seeded.
+ */
+@Component
+public class SeatCounterReconciler implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatCounterReconciler.class);
+
+    private final EventRepository events;
+    private final TransactionTemplate tx;
+    private final boolean repair;
+
+    public SeatCounterReconciler(EventRepository events,
+                                 PlatformTransactionManager txManager,
+                                 @Value("${booking.seat-counter.reconcile.repair:true}") boolean repair) {
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.repair = repair;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile(true);
+    }
+
+    @Scheduled(initialDelayString = "${booking.seat-counter.reconcile.initial-delay-ms:30000}",
+               fixedDelayString = "${booking.seat-counter.reconcile.interval-ms:300000}")
+    public void reconcile() {
+        reconcile(repair);
+    }
+
+    private void reconcile(boolean repair) {
+        List<EventRepository.SeatCounterDrift> drifts = tx.execute(s -> events.findSeatCounterDrift());
+        if (drifts == null || drifts.isEmpty()) return;
+
+        for (EventRepository.SeatCounterDrift d : drifts) {
+            log.warn("Seat counter drift on event {}: confirmed_count={}, bookings={}, held_count={}, holds={}",
+                    d.getEventId(), d.getCounter(), d.getActual(), d.getHeldCounter(), d.getHeldActual());
+            if (repair) {
+                tx.executeWithoutResult(s -> {
+                    // Lock first, then recount in a fresh statement so in-flight writers have committed
+                    events.lockRowById(d.getEventId());
+                    events.resyncConfirmedCount(d.getEventId());
+                });
+            }
+        }
+    }
+}
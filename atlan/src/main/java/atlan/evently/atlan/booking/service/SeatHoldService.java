@@ -0,0 +1,217 @@
+// src/main/java/atlan/evently/atlan/booking/service/SeatHoldService.java
+package atlan.evently.atlan.booking.service;
+
+import atlan.evently.atlan.booking.hold.HashedTimingWheel;
+import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.model.SeatHold;
+import atlan.evently.atlan.booking.repo.BookingBatchRepository;
+import atlan.evently.atlan.booking.repo.BookingRepository;
+import atlan.evently.atlan.booking.repo.SeatHoldRepository;
+import atlan.evently.atlan.caching.policy.DoNotCache;
+import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.user.model.User;
+import atlan.evently.atlan.user.service.UserService;
+import atlan.evently.atlan.waitlist.service.WaitlistPromoter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Two-phase booking: hold a seat for a short TTL, then confirm it into a Booking.
+ * - Holds are counted in events.held_count, so capacity checks stay a single conditional UPDATE
+ *   (confirmed_count + held_count < capacity) with no aggregate over seat_holds.
+ * - Expiry is driven by an in-memory hashed timing wheel (no per-hold scheduled task, no table scan);
+ *   everything due in one tick is expired in one transaction with one counter UPDATE per event.
+ * - A slow backstop sweep over ix_seat_holds_expires_at catches holds whose timer was lost
+ *   (e.g. the node that created them restarted).
+ */
+@Service
+@DoNotCache
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+    private static final int EXPIRE_CHUNK = 500;
+    private static final int REARM_PAGE = 5000;
+
+    private final SeatHoldRepository holds;
+    private final BookingRepository bookings;
+    private final BookingBatchRepository bookingBatch;
+    private final EventRepository events;
+    private final UserService users;
+    private final WaitlistPromoter waitlistPromoter;
+    private final TransactionTemplate tx;
+    private final long ttlSeconds;
+    private final HashedTimingWheel<Long> wheel;
+
+    public SeatHoldService(SeatHoldRepository holds,
+                           BookingRepository bookings,
+                           BookingBatchRepository bookingBatch,
+                           EventRepository events,
+                           UserService users,
+                           WaitlistPromoter waitlistPromoter,
+                           PlatformTransactionManager txManager,
+                           @Value("${booking.hold.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${booking.hold.tick-ms:100}") long tickMs) {
+        this.holds = holds;
+        this.bookings = bookings;
+        this.bookingBatch = bookingBatch;
+        this.events = events;
+        this.users = users;
+        this.waitlistPromoter = waitlistPromoter;
+        this.tx = new TransactionTemplate(txManager);
+        this.ttlSeconds = ttlSeconds;
+        this.wheel = new HashedTimingWheel<>(tickMs, 512, "seat-hold-wheel", this::expire);
+    }
+
+    /**
+     * Reserve one seat for the user until the TTL elapses.
+     * Fails if the event is full (holds count against capacity) or the user already has a booking/hold.
+     */
+    @Transactional
+    public SeatHold hold(Long userId, Long eventId) {
+        User u = users.getById(userId);
+
+        if (events.tryHoldSeat(eventId) == 0) {
+            if (!events.existsById(eventId)) {
+                throw new IllegalArgumentException("Event not found");
+            }
+            throw new IllegalStateException("Event at capacity");
+        }
+        // Both guards run under the event row lock taken above
+        if (bookings.existsByUser_IdAndEvent_IdAndStatus(userId, eventId, Booking.Status.CONFIRMED)) {
+            throw new IllegalStateException("Active booking already exists");
+        }
+        if (holds.existsByUser_IdAndEvent_Id(userId, eventId)) {
+            throw new IllegalStateException("Active hold already exists");
+        }
+
+        SeatHold h = new SeatHold();
+        h.setUser(u);
+        h.setEvent(events.getReferenceById(eventId));
+        h.setExpiresAt(OffsetDateTime.now().plusSeconds(ttlSeconds));
+        SeatHold saved = holds.save(h);
+        wheel.schedule(saved.getId(), ttlSeconds * 1000);
+        return saved;
+    }
+
+    /**
+     * Convert an unexpired hold into a confirmed Booking; the seat moves from held to confirmed.
+     * Only the hold's owner (or an admin) may confirm it.
+     */
+    @Transactional
+    public Booking confirm(Long holdId, Long requesterUserId, boolean isAdmin) {
+        SeatHold h = lockOwnedHold(holdId, requesterUserId, isAdmin);
+        if (!h.getExpiresAt().isAfter(OffsetDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Hold expired");
+        }
+        Long eventId = h.getEvent().getId();
+        // held_count drifted below the live holds: take the seat through the normal capacity check instead
+        if (events.convertHeldSeat(eventId) == 0 && events.tryReserveSeat(eventId) == 0) {
+            throw new IllegalStateException("Event at capacity");
+        }
+        holds.delete(h);
+
+        // Unique-index guarded insert; on conflict the rollback restores the hold and its seat
+        OffsetDateTime now = OffsetDateTime.now();
+        Long id = bookingBatch.insertConfirmedIfAbsent(h.getUser().getId(), eventId, now)
+                .orElseThrow(() -> new IllegalStateException("Active booking already exists"));
+
+        Booking b = new Booking();
+        b.setId(id);
+        b.setUser(h.getUser());
+        b.setEvent(h.getEvent());
+        b.setStatus(Booking.Status.CONFIRMED);
+        b.setBookedAt(now);
+        return b;
+    }
+
+    /** Give a hold back before it expires; owner or admin only. */
+    @Transactional
+    public void release(Long holdId, Long requesterUserId, boolean isAdmin) {
+        SeatHold h = lockOwnedHold(holdId, requesterUserId, isAdmin);
+        events.releaseHeldSeats(h.getEvent().getId(), 1);
+        holds.delete(h);
+        waitlistPromoter.seatsFreedAfterCommit(h.getEvent().getId());
+    }
+
+    // Same rule as BookingService#cancelBooking: hold ids are sequential, so ownership is always checked
+    private SeatHold lockOwnedHold(Long holdId, Long requesterUserId, boolean isAdmin) {
+        if (!isAdmin && requesterUserId == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthenticated");
+        }
+        SeatHold h = holds.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Hold not found or expired"));
+        if (!isAdmin && !h.getUser().getId().equals(requesterUserId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to use this hold");
+        }
+        return h;
+    }
+
+    // Timing-wheel callback: expire everything due this tick, one transaction per chunk of ids so the
+    // IN list and the transaction stay bounded however many holds fall due at once (e.g. after a restart)
+    void expire(List<Long> holdIds) {
+        for (int i = 0; i < holdIds.size(); i += EXPIRE_CHUNK) {
+            expireChunk(holdIds.subList(i, Math.min(i + EXPIRE_CHUNK, holdIds.size())));
+        }
+    }
+
+    private void expireChunk(List<Long> holdIds) {
+        try {
+            tx.executeWithoutResult(s -> {
+                List<SeatHold> due = holds.findExpiredForUpdate(holdIds, OffsetDateTime.now());
+                if (due.isEmpty()) return; // confirmed or released meanwhile
+                Map<Long, Long> perEvent = due.stream()
+                        .collect(Collectors.groupingBy(h -> h.getEvent().getId(), Collectors.counting()));
+                holds.deleteAllInBatch(due);
+                perEvent.forEach((eventId, n) -> {
+                    events.releaseHeldSeats(eventId, n.intValue());
+                    waitlistPromoter.seatsFreedAfterCommit(eventId);
+                });
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to expire {} seat holds; backstop sweep will retry", holdIds.size(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.hold.sweep-interval-ms:60000}")
+    public void sweepOrphans() {
+        List<Long> ids = holds.findIdsExpiredBefore(OffsetDateTime.now().minusSeconds(30), PageRequest.of(0, 1000));
+        if (!ids.isEmpty()) expire(ids);
+    }
+
+    // Paged by id so startup never loads every hold at once; the wheel then holds one small entry per hold
+    @EventListener(ApplicationReadyEvent.class)
+    public void rearmTimers() {
+        long afterId = 0;
+        List<SeatHoldRepository.ActiveHold> page;
+        do {
+            page = holds.findActivePage(afterId, PageRequest.of(0, REARM_PAGE));
+            long now = System.currentTimeMillis();
+            for (SeatHoldRepository.ActiveHold h : page) {
+                wheel.schedule(h.getId(), h.getExpiresAt().toInstant().toEpochMilli() - now);
+                afterId = h.getId();
+            }
+        } while (page.size() == REARM_PAGE);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        wheel.stop();
+    }
+}
@@ -2,7 +2,10 @@
 package atlan.evently.atlan.booking.web;
 
 import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.model.SeatHold;
+import atlan.evently.atlan.booking.repo.BookingHistoryView;
 import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.booking.web.dto.SeatHoldResponse;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,4 +27,26 @@ public final class BookingMapper {
     public static List<BookingResponse> toResponseList(List<Booking> list) {
         return list.stream().map(BookingMapper::toResponse).collect(Collectors.toList());
     }
+
+    public static BookingResponse toResponse(BookingHistoryView v) {
+        BookingResponse r = new BookingResponse();
+        r.setId(v.id());
+        r.setUserId(v.userId());
+        r.setEventId(v.eventId());
+        r.setEventName(v.eventName());
+        r.setEventStartTime(v.eventStartTime());
+        r.setStatus(v.status().name());
+        r.setBookedAt(v.bookedAt());
+        r.setCanceledAt(v.canceledAt());
+        return r;
+    }
+
+    public static SeatHoldResponse toResponse(SeatHold h) {
+        SeatHoldResponse r = new SeatHoldResponse();
+        r.setId(h.getId());
+        r.setUserId(h.getUser() != null ? h.getUser().getId() : null);
+        r.setEventId(h.getEvent() != null ? h.getEvent().getId() : null);
+        r.setExpiresAt(h.getExpiresAt());
+        return r;
+    }
 }
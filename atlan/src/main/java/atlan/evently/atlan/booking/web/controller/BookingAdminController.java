@@ -0,0 +1,90 @@
+// src/main/java/atlan/evently/atlan/booking/web/controller/BookingAdminController.java
+package atlan.evently.atlan.booking.web.controller;
+
+import atlan.evently.atlan.booking.service.BookingBulkCancelService;
+import atlan.evently.atlan.booking.service.BookingExportService;
+import atlan.evently.atlan.booking.service.BookingExportService.Format;
+import atlan.evently.atlan.booking.web.dto.BulkCancelResponse;
+import atlan.evently.atlan.idempotency.Idempotent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+
+@RestController
+@RequestMapping("/api/v1/admin/bookings")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admin Bookings", description = "Admin-only bulk booking operations")
+public class BookingAdminController {
+
+    private final BookingExportService export;
+    private final BookingBulkCancelService bulkCancel;
+
+    public BookingAdminController(BookingExportService export, BookingBulkCancelService bulkCancel) {
+        this.export = export;
+        this.bulkCancel = bulkCancel;
+    }
+
+    @Operation(summary = "Export bookings (Admin)",
+            description = "Streams bookings as NDJSON (default) or CSV, ordered by id, optionally filtered by event and "
+                    + "booked_at range [from, to). Memory use is constant regardless of the number of rows.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden, user does not have admin rights", content = @Content)
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only bookings for this event") @RequestParam(required = false) Long eventId,
+            @Parameter(description = "booked_at lower bound, inclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "booked_at upper bound, exclusive (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        Format f = switch (format.toLowerCase()) {
+            case "csv" -> Format.CSV;
+            case "ndjson", "jsonl" -> Format.NDJSON;
+            default -> throw new IllegalArgumentException("Unsupported format: " + format);
+        };
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        MediaType type = f == Format.CSV ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson");
+        String filename = "bookings." + (f == Format.CSV ? "csv" : "ndjson");
+        StreamingResponseBody body = out -> export.export(f, eventId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Cancel all bookings for an event (Admin)",
+            description = "Cancels every confirmed booking of the event and clears its waitlist in one transaction "
+                    + "(set-based, not row by row). Affected users are emailed in batches after commit.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Bookings cancelled",
+                    content = @Content(schema = @Schema(implementation = BulkCancelResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden, user does not have admin rights", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Event not found", content = @Content)
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @Idempotent
+    @PostMapping("/events/{eventId}/cancel-all")
+    public ResponseEntity<BulkCancelResponse> cancelAllForEvent(@PathVariable Long eventId) {
+        return ResponseEntity.ok(bulkCancel.cancelAllForEvent(eventId));
+    }
+}
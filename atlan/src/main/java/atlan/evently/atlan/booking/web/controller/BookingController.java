@@ -1,14 +1,24 @@
 package atlan.evently.atlan.booking.web.controller;
 
+import atlan.evently.atlan.booking.exec.BookingAdmissionControl;
+import atlan.evently.atlan.booking.exec.BookingRetryExecutor;
+import atlan.evently.atlan.booking.exec.GroupCommitBookingExecutor;
 import atlan.evently.atlan.booking.model.Booking;
 import atlan.evently.atlan.booking.service.BookingService;
+import atlan.evently.atlan.booking.service.SeatHoldService;
 import atlan.evently.atlan.booking.web.BookingMapper;
 import atlan.evently.atlan.booking.web.dto.BookingCreateRequest;
 import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.booking.web.dto.GroupBookingCreateRequest;
+import atlan.evently.atlan.booking.web.dto.SeatHoldCreateRequest;
+import atlan.evently.atlan.booking.web.dto.SeatHoldResponse;
 import atlan.evently.atlan.idempotency.IdempotencyUtil;
+import atlan.evently.atlan.idempotency.Idempotent;
+import atlan.evently.atlan.idempotency.service.IdempotencyInFlight;
 import atlan.evently.atlan.idempotency.service.IdempotencyService;
 import atlan.evently.atlan.user.model.User;
 import atlan.evently.atlan.user.service.UserService;
+import atlan.evently.atlan.waitingroom.service.WaitingRoomService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -33,11 +43,26 @@ public class BookingController {
     private final BookingService bookings;
     private final IdempotencyService idempotencyService;
     private final UserService users;
+    private final GroupCommitBookingExecutor groupCommit;
+    private final SeatHoldService holds;
+    private final BookingRetryExecutor retry;
+    private final BookingAdmissionControl admission;
+    private final WaitingRoomService waitingRoom;
+    private final IdempotencyInFlight inFlight;
 
-    public BookingController(BookingService bookings, IdempotencyService idempotencyService, UserService users) {
+    public BookingController(BookingService bookings, IdempotencyService idempotencyService, UserService users,
+                             GroupCommitBookingExecutor groupCommit, SeatHoldService holds,
+                             BookingRetryExecutor retry, BookingAdmissionControl admission,
+                             WaitingRoomService waitingRoom, IdempotencyInFlight inFlight) {
         this.bookings = bookings;
         this.idempotencyService = idempotencyService;
         this.users = users;
+        this.groupCommit = groupCommit;
+        this.holds = holds;
+        this.retry = retry;
+        this.admission = admission;
+        this.waitingRoom = waitingRoom;
+        this.inFlight = inFlight;
     }
 
     @Operation(summary = "Create a new booking",
@@ -47,20 +72,145 @@ public class BookingController {
                     content = @Content(schema = @Schema(implementation = BookingResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
             @ApiResponse(responseCode = "404", description = "User or Event not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Duplicate request or request in progress", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Duplicate request, or still in progress after waiting (see Retry-After)", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Waiting-room event booked without a valid queue token", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent booking requests, or not yet admitted from the waiting room; retry after Retry-After seconds", content = @Content)
     })
     @PostMapping
     public ResponseEntity<BookingResponse> create(
             @Parameter(description = "Unique idempotency key to ensure safe retries", required = true)
             @RequestHeader("Idempotency-Key") String idemKey,
+            @Parameter(description = "Queue token from the waiting room (required for waiting-room events)")
+            @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
             @Valid @RequestBody BookingCreateRequest req
     ) {
         String endpoint = "POST:/api/v1/bookings";
         String requestHash = IdempotencyUtil.sha256(req.getUserId() + ":" + req.getEventId());
-        return idempotencyService.executeCreateBooking(
-                idemKey, endpoint, req.getUserId(), requestHash,
-                () -> bookings.createBooking(req.getUserId(), req.getEventId())
-        );
+        // A duplicate of a request still running on this node waits for it, then replays its outcome
+        return inFlight.runOnce(idemKey, endpoint, () -> createOnce(idemKey, endpoint, requestHash, queueToken, req));
+    }
+
+    private ResponseEntity<BookingResponse> createOnce(String idemKey, String endpoint, String requestHash,
+                                                       String queueToken, BookingCreateRequest req) {
+        // Retries of completed requests are answered from memory, before any queue, limit or DB work
+        var cached = idempotencyService.replayCachedBooking(idemKey, endpoint, requestHash);
+        if (cached.isPresent()) return cached.get();
+        waitingRoom.requireAdmitted(req.getEventId(), req.getUserId(), queueToken);
+        // Admission control first: excess requests get a 429 before they take a connection.
+        // Batched and mailbox requests wait in their executor's queue without a global slot
+        boolean queued = groupCommit.isEnabled(req.getEventId()) || bookings.isQueued();
+        return admission.execute(req.getEventId(), queued, () -> {
+            // Hot events: join the current group-commit batch; keys seen before fall through to the replay path
+            if (groupCommit.isEnabled(req.getEventId())) {
+                ResponseEntity<BookingResponse> batched =
+                        groupCommit.submit(idemKey, endpoint, req.getUserId(), req.getEventId(), requestHash);
+                if (batched != null) {
+                    if (batched.getStatusCode().value() == 201) {
+                        idempotencyService.rememberSuccess(idemKey, endpoint, requestHash, batched.getBody());
+                    }
+                    return batched;
+                }
+            }
+            // Optimized path: whole booking incl. idempotency record in one statement; known keys fall through to replay
+            if (bookings.isSingleStatementEnabled(req.getEventId())) {
+                Booking b = bookings.dispatch(req.getEventId(), () -> retry.execute(req.getEventId(),
+                        () -> bookings.createBookingSingleStatement(idemKey, endpoint, req.getUserId(), req.getEventId(), requestHash)));
+                if (b != null) {
+                    BookingResponse body = BookingMapper.toResponse(b);
+                    idempotencyService.rememberSuccess(idemKey, endpoint, requestHash, body);
+                    return ResponseEntity.status(201).body(body);
+                }
+            }
+            // Each retry attempt gets a fresh transaction for the idempotency record and the booking together
+            return bookings.dispatch(req.getEventId(), () -> retry.execute(req.getEventId(),
+                    () -> idempotencyService.executeCreateBooking(
+                            idemKey, endpoint, req.getUserId(), requestHash,
+                            () -> bookings.createBooking(req.getUserId(), req.getEventId())
+                    )));
+        });
+    }
+
+    @Operation(summary = "Create a group booking",
+            description = "Books several seats for one user in a single all-or-nothing transaction. Supports idempotent retries via Idempotency-Key header.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "All seats booked",
+                    content = @Content(schema = @Schema(implementation = BookingResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Not enough seats, duplicate booking, or request in progress", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Waiting-room event booked without a valid queue token", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many concurrent booking requests, or not yet admitted from the waiting room; retry after Retry-After seconds", content = @Content)
+    })
+    @PostMapping("/group")
+    public ResponseEntity<List<BookingResponse>> createGroup(
+            @Parameter(description = "Unique idempotency key to ensure safe retries", required = true)
+            @RequestHeader("Idempotency-Key") String idemKey,
+            @Parameter(description = "Queue token from the waiting room (required for waiting-room events)")
+            @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
+            @Valid @RequestBody GroupBookingCreateRequest req
+    ) {
+        String endpoint = "POST:/api/v1/bookings/group";
+        String requestHash = IdempotencyUtil.sha256(req.getUserId() + ":" + req.getEventId() + ":" + req.getQuantity());
+        return inFlight.runOnce(idemKey, endpoint, () -> {
+            var cached = idempotencyService.replayCachedGroupBooking(idemKey, endpoint, requestHash);
+            if (cached.isPresent()) return cached.get();
+            waitingRoom.requireAdmitted(req.getEventId(), req.getUserId(), queueToken);
+            return admission.execute(req.getEventId(), bookings.isQueued(), () ->
+                    bookings.dispatch(req.getEventId(), () -> retry.execute(req.getEventId(),
+                            () -> idempotencyService.executeCreateGroupBooking(
+                                    idemKey, endpoint, req.getUserId(), requestHash,
+                                    () -> bookings.createGroupBooking(req.getUserId(), req.getEventId(), req.getQuantity())
+                            ))));
+        });
+    }
+
+    @Operation(summary = "Hold a seat",
+            description = "Reserves one seat for a short time; confirm the hold to turn it into a booking before it expires.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Seat held",
+                    content = @Content(schema = @Schema(implementation = SeatHoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Event full, or user already has a booking/hold", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Waiting-room event held without a valid queue token", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Not yet admitted from the waiting room; retry after Retry-After seconds", content = @Content)
+    })
+    @Idempotent
+    @PostMapping("/holds")
+    public ResponseEntity<SeatHoldResponse> hold(
+            @Parameter(description = "Queue token from the waiting room (required for waiting-room events)")
+            @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
+            @Valid @RequestBody SeatHoldCreateRequest req) {
+        // A hold turns into a booking on confirm, so it passes the same gate as create
+        waitingRoom.requireAdmitted(req.getEventId(), req.getUserId(), queueToken);
+        return ResponseEntity.status(201).body(BookingMapper.toResponse(holds.hold(req.getUserId(), req.getEventId())));
+    }
+
+    @Operation(summary = "Confirm a seat hold",
+            description = "Turns an unexpired hold into a confirmed booking.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Booking confirmed",
+                    content = @Content(schema = @Schema(implementation = BookingResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Hold belongs to another user", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Hold not found or already expired", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Hold expired", content = @Content)
+    })
+    @Idempotent
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<BookingResponse> confirmHold(@PathVariable Long holdId, Authentication auth) {
+        Booking b = holds.confirm(holdId, resolveRequesterUserId(auth), hasAdmin(auth));
+        return ResponseEntity.status(201).body(BookingMapper.toResponse(b));
+    }
+
+    @Operation(summary = "Release a seat hold", description = "Gives the held seat back before the hold expires.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Hold released"),
+            @ApiResponse(responseCode = "403", description = "Hold belongs to another user", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Hold not found or already expired", content = @Content)
+    })
+    @Idempotent
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long holdId, Authentication auth) {
+        holds.release(holdId, resolveRequesterUserId(auth), hasAdmin(auth));
+        return ResponseEntity.noContent().build();
     }
 
     // DEPRECATED: Keep commented to simplify API (use DELETE /{id}/cancel instead).
@@ -112,25 +262,39 @@ public class BookingController {
             @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
             @ApiResponse(responseCode = "409", description = "Booking not cancellable", content = @Content)
     })
+    @Idempotent
     @DeleteMapping("/{id}/cancel")
     public ResponseEntity<BookingResponse> cancelBookingDelete(@PathVariable Long id, Authentication auth) {
         Long requesterUserId = resolveRequesterUserId(auth);
         boolean isAdmin = hasAdmin(auth);
-        Booking booking = bookings.cancelBooking(id, requesterUserId, isAdmin);
+        Booking booking = bookings.dispatchForBooking(id, () -> bookings.cancelBooking(id, requesterUserId, isAdmin));
         return ResponseEntity.ok(BookingMapper.toResponse(booking));
     }
 
     @Operation(summary = "List bookings by user",
-            description = "Retrieves all bookings (past and present) made by the specified user.")
+            description = "Retrieves the user's bookings (past and present), newest first, with event name and time. "
+                    + "Without cursor and limit the full history is returned. With either, it is cursor-paginated "
+                    + "(default page size 50): pass the X-Next-Cursor response header back as ?cursor= to get the "
+                    + "next page; the header is absent on the last page.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully",
                     content = @Content(schema = @Schema(implementation = BookingResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
     })
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingResponse>> listByUser(@PathVariable Long userId) {
-        List<Booking> bookingsList = bookings.listUserBookings(userId);
-        return ResponseEntity.ok(BookingMapper.toResponseList(bookingsList));
+    public ResponseEntity<List<BookingResponse>> listByUser(
+            @PathVariable Long userId,
+            @Parameter(description = "Opaque cursor from a previous page's X-Next-Cursor header")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-200); enables pagination")
+            @RequestParam(required = false) Integer limit) {
+        BookingService.HistoryPage page = bookings.listUserBookings(userId, cursor, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            ok.header("X-Next-Cursor", page.nextCursor());
+        }
+        return ok.body(page.items().stream().map(BookingMapper::toResponse).toList());
     }
 
     private Long resolveRequesterUserId(Authentication auth) {
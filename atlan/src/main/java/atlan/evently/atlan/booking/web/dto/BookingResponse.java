@@ -9,6 +9,8 @@ public class BookingResponse {
     private Long id;
     private Long userId;     // NEW
     private Long eventId;
+    private String eventName;              // set on history listings only
+    private OffsetDateTime eventStartTime; // set on history listings only
     private String status;
     private OffsetDateTime bookedAt;
     private OffsetDateTime canceledAt;
@@ -0,0 +1,16 @@
+// src/main/java/atlan/evently/atlan/booking/web/dto/BulkCancelResponse.java
+package atlan.evently.atlan.booking.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancelResponse {
+    private Long eventId;
+    private int canceledBookings;
+    private int waitlistCleared;
+    private int usersNotified;   // emails queued (distinct users)
+}
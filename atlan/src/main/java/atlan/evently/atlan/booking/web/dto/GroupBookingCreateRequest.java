@@ -0,0 +1,14 @@
+// src/main/java/atlan/evently/atlan/booking/web/dto/GroupBookingCreateRequest.java
+package atlan.evently.atlan.booking.web.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class GroupBookingCreateRequest {
+    @NotNull private Long userId;
+    @NotNull private Long eventId;
+    @NotNull @Min(1) @Max(50) private Integer quantity;
+}
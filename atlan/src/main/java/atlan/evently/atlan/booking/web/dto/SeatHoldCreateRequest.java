@@ -0,0 +1,11 @@
+// src/main/java/atlan/evently/atlan/booking/web/dto/SeatHoldCreateRequest.java
+package atlan.evently.atlan.booking.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SeatHoldCreateRequest {
+    @NotNull private Long userId;
+    @NotNull private Long eventId;
+}
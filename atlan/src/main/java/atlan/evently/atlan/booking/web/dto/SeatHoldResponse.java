@@ -0,0 +1,14 @@
+// src/main/java/atlan/evently/atlan/booking/web/dto/SeatHoldResponse.java
+package atlan.evently.atlan.booking.web.dto;
+
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+
+@Data
+public class SeatHoldResponse {
+    private Long id;
+    private Long userId;
+    private Long eventId;
+    private OffsetDateTime expiresAt;
+}
@@ -123,10 +123,11 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(body(HttpStatus.NOT_FOUND, "Endpoint not found", request));
     }
 
-    // Pass-through explicit statuses from services/controllers
+    // Pass-through explicit statuses (and headers, e.g. Retry-After on 429) from services/controllers
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ErrorResponse> handleRse(ResponseStatusException ex, WebRequest request) {
-        return ResponseEntity.status(ex.getStatusCode()).body(body(ex.getStatusCode(), ex.getReason(), request));
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders())
+                .body(body(ex.getStatusCode(), ex.getReason(), request));
     }
 
     // 400: bad arguments (e.g., malformed IDs or service guards)
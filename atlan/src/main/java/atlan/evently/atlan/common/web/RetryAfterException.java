@@ -0,0 +1,32 @@
+// src/main/java/atlan/evently/atlan/common/web/RetryAfterException.java
+package atlan.evently.atlan.common.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** 429 (or another retryable status) carrying a Retry-After header (forwarded by GlobalExceptionHandler). */
+public class RetryAfterException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public RetryAfterException(String reason, long retryAfterSeconds) {
+        this(HttpStatus.TOO_MANY_REQUESTS, reason, retryAfterSeconds);
+    }
+
+    public RetryAfterException(HttpStatus status, String reason, long retryAfterSeconds) {
+        super(status, reason);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
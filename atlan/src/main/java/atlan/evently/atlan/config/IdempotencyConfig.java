@@ -0,0 +1,33 @@
+// src/main/java/atlan/evently/atlan/config/IdempotencyConfig.java
+package atlan.evently.atlan.config;
+
+import atlan.evently.atlan.idempotency.Idempotent;
+import atlan.evently.atlan.idempotency.service.IdempotencyService;
+import atlan.evently.atlan.idempotency.web.IdempotencyInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Wires {@link Idempotent} handler methods to IdempotencyInterceptor.
+ * Registered as an infrastructure advisor (like @Transactional's), so the auto-proxy creator that is
+ * always present applies it without AspectJ on the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+public class IdempotencyConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor idempotentAdvisor(ObjectProvider<IdempotencyService> idempotency, ObjectProvider<ObjectMapper> json) {
+        // Default (lowest) order: runs inside method security, so replays are only served to authorized callers
+        return new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Idempotent.class),
+                new IdempotencyInterceptor(idempotency, json));
+    }
+}
@@ -0,0 +1,9 @@
+// src/main/java/atlan/evently/atlan/config/SchedulingConfig.java
+package atlan.evently.atlan.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
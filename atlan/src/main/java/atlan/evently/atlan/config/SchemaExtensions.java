@@ -0,0 +1,95 @@
+// src/main/java/atlan/evently/atlan/config/SchemaExtensions.java
+package atlan.evently.atlan.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Postgres objects that JPA annotations cannot express (partial indexes etc.).
+ * The schema is otherwise managed by Hibernate (ddl-auto=update), so these run after it on every
+ * startup and must be idempotent (IF NOT EXISTS).
+ * They run while the context is being built (after the EntityManagerFactory has applied its DDL), i.e.
+ * before the web server accepts requests, so no request can observe a half-migrated schema.
+ */
+@Component
+public class SchemaExtensions implements InitializingBean {
+
+    private static final List<String> STATEMENTS = List.of(
+            // One active booking (single seat, or a group's seat 0) per user+event; single-seat inserts
+            // rely on it via ON CONFLICT (user_id, event_id)
+            """
+            create unique index if not exists ux_bookings_active_user_event
+              on bookings (user_id, event_id)
+              where status = 'CONFIRMED' and party_seat = 0
+            """,
+            // Group seats: distinct seat numbers per active party; the group insert's ON CONFLICT arbiter
+            """
+            create unique index if not exists ux_bookings_active_party_seat
+              on bookings (user_id, event_id, party_seat)
+              where status = 'CONFIRMED'
+            """,
+            // idempotency_records.response_body was once mapped as @Lob (a large-object oid); move it to text
+            """
+            do $$
+            begin
+              if exists (select 1 from information_schema.columns
+                         where table_name = 'idempotency_records' and column_name = 'response_body'
+                           and data_type = 'oid') then
+                alter table idempotency_records alter column response_body type text
+                  using case when response_body is null then null
+                             else convert_from(lo_get(response_body), 'UTF8') end;
+              end if;
+            end $$
+            """,
+            // Waitlist tickets: number entries that have none (pre-ticket queues) in join order, after any
+            // tickets the event has already issued, then make the counters agree with the table
+            """
+            with pending as (
+              select w.id, w.event_id,
+                     row_number() over (partition by w.event_id order by w.enqueued_at, w.id) as rn
+              from waitlist w
+              where w.ticket is null
+            )
+            update waitlist w set ticket = coalesce(c.issued, 0) + p.rn
+            from pending p
+            left join waitlist_counters c on c.event_id = p.event_id
+            where w.id = p.id
+            """,
+            """
+            insert into waitlist_counters (event_id, issued, served_upto, live_count)
+            select event_id, max(ticket), min(ticket) - 1, count(*)
+            from waitlist
+            group by event_id
+            on conflict (event_id) do update
+              set issued = greatest(waitlist_counters.issued, excluded.issued),
+                  live_count = excluded.live_count
+            """
+    );
+
+    private final JdbcTemplate jdbc;
+
+    // The factory is only taken to order this bean after Hibernate's schema update
+    public SchemaExtensions(JdbcTemplate jdbc, EntityManagerFactory schemaReady) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Fails startup when a statement fails: the booking paths' ON CONFLICT clauses need the unique indexes,
+     * and without them every insert would fail at runtime instead. Duplicate active bookings written before
+     * the guard existed make the index creation fail here; they are never cancelled automatically.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        for (String sql : STATEMENTS) {
+            try {
+                jdbc.execute(sql);
+            } catch (RuntimeException ex) {
+                throw new IllegalStateException("Schema extension failed: " + sql.strip(), ex);
+            }
+        }
+    }
+}
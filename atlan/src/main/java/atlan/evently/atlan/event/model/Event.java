@@ -37,6 +37,20 @@ public class Event {
     @Column(nullable = false)
     private Integer capacity;
 
+    // Maintained seat counter: only changed by the conditional UPDATEs in EventRepository,
+    // never by entity dirty checking, so admin edits cannot overwrite a concurrent booking.
+    @Column(name = "confirmed_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer confirmedCount = 0;
+
+    // Seats reserved by unexpired SeatHolds; maintained the same way as confirmedCount
+    @Column(name = "held_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer heldCount = 0;
+
+    // Set when the event is called off (admin bulk cancel); only written by EventRepository#closeForCancellation.
+    // A cancelled event keeps its capacity but takes no bookings, holds or waitlist joins.
+    @Column(name = "canceled_at", updatable = false)
+    private OffsetDateTime canceledAt;
+
     @Version
     @Column(nullable = false)
     private Integer version;
@@ -53,10 +67,18 @@ public class Event {
         if (createdAt == null) createdAt = now;
         if (updatedAt == null) updatedAt = now;
         if (version == null) version = 0;
+        if (confirmedCount == null) confirmedCount = 0;
+        if (heldCount == null) heldCount = 0;
     }
 
     @PreUpdate
     void onUpdate() {
         updatedAt = OffsetDateTime.now();
     }
+
+    /** Seats neither confirmed nor held (snapshot of the loaded row); none once the event is cancelled. */
+    public int freeSeats() {
+        if (canceledAt != null) return 0;
+        return Math.max(0, capacity - confirmedCount - heldCount);
+    }
 }
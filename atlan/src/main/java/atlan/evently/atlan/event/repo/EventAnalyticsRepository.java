@@ -8,6 +8,6 @@ public interface EventAnalyticsRepository {
     @Query("select count(e) from Event e")
     long countAllEvents();
 
-    @Query("select coalesce(sum(e.capacity),0) from Event e")
+    @Query("select coalesce(sum(e.capacity),0) from Event e where e.canceledAt is null")
     long sumCapacity();
 }
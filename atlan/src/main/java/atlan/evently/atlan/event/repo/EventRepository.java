@@ -1,6 +1,7 @@
 package atlan.evently.atlan.event.repo;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,15 +12,107 @@ import jakarta.persistence.LockModeType;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
 
+    interface SeatCounterDrift {
+        Long getEventId();
+        long getCounter();
+        long getActual();
+        long getHeldCounter();
+        long getHeldActual();
+    }
+
     @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     @Query("select e from Event e where e.id = :id")
     Optional<Event> findByIdForUpdate(@Param("id") Long id);
 
-    @Query("select e from Event e where e.startTime >= :now order by e.startTime asc")
+    @Query("select e from Event e where e.startTime >= :now and e.canceledAt is null order by e.startTime asc")
     Page<Event> findUpcoming(OffsetDateTime now, Pageable pageable);
     @Query("select count(e) from Event e")
     long countAllEvents();
 
-    @Query("select coalesce(sum(e.capacity),0) from Event e")
+    @Query("select coalesce(sum(e.capacity),0) from Event e where e.canceledAt is null")
     long sumCapacity();
+
+    // Claim one seat; returns 0 when the event is full, cancelled or missing. Active holds count against capacity.
+    // The row lock taken by the UPDATE serializes same-event writers until commit, so no separate event lock is needed.
+    @Modifying
+    @Query("update Event e set e.confirmedCount = e.confirmedCount + 1 where e.id = :id and e.canceledAt is null and e.confirmedCount + e.heldCount < e.capacity")
+    int tryReserveSeat(@Param("id") Long id);
+
+    // Claim n seats at once (group booking); all-or-nothing
+    @Modifying
+    @Query("update Event e set e.confirmedCount = e.confirmedCount + :n where e.id = :id and e.canceledAt is null and e.confirmedCount + e.heldCount + :n <= e.capacity")
+    int tryReserveSeats(@Param("id") Long id, @Param("n") int n);
+
+    // Lock the event row and read its free seats (group-commit path: one lock per batch); 0 once cancelled
+    @Query(value = """
+      select case when canceled_at is null then capacity - confirmed_count - held_count else 0 end
+      from events where id = :id for update
+    """, nativeQuery = true)
+    Optional<Integer> lockFreeSeats(@Param("id") Long id);
+
+    // Unconditional add; caller must hold the row lock and have checked free seats
+    @Modifying
+    @Query("update Event e set e.confirmedCount = e.confirmedCount + :n where e.id = :id")
+    int addConfirmed(@Param("id") Long id, @Param("n") int n);
+
+    // Hold one seat (two-phase booking); same capacity rule as tryReserveSeat
+    @Modifying
+    @Query("update Event e set e.heldCount = e.heldCount + 1 where e.id = :id and e.canceledAt is null and e.confirmedCount + e.heldCount < e.capacity")
+    int tryHoldSeat(@Param("id") Long id);
+
+    // Turn one held seat into a confirmed one; capacity was already checked when the hold was taken
+    @Modifying
+    @Query("update Event e set e.heldCount = e.heldCount - 1, e.confirmedCount = e.confirmedCount + 1 where e.id = :id and e.canceledAt is null and e.heldCount > 0")
+    int convertHeldSeat(@Param("id") Long id);
+
+    // Release n held seats (expiry/abandon)
+    @Modifying
+    @Query("update Event e set e.heldCount = case when e.heldCount >= :n then e.heldCount - :n else 0 end where e.id = :id")
+    int releaseHeldSeats(@Param("id") Long id, @Param("n") int n);
+
+    // Return one seat to the pool (cancellation path)
+    @Modifying
+    @Query("update Event e set e.confirmedCount = e.confirmedCount - 1 where e.id = :id and e.confirmedCount > 0")
+    int releaseSeat(@Param("id") Long id);
+
+    // Event called off: every seat-claiming statement above checks canceled_at, capacity is kept as it was.
+    // Holds are dropped by the caller; caller must hold the row lock. Bumps the version like an admin edit.
+    @Modifying
+    @Query("update Event e set e.canceledAt = :now, e.heldCount = 0, e.version = e.version + 1 where e.id = :id")
+    int closeForCancellation(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    // Events whose maintained counters disagree with the bookings / seat_holds tables
+    @Query(value = """
+      select e.id as eventId,
+             e.confirmed_count as counter, coalesce(b.cnt, 0) as actual,
+             e.held_count as heldCounter, coalesce(h.cnt, 0) as heldActual
+      from events e
+      left join (
+        select event_id, count(*) as cnt
+        from bookings
+        where status = 'CONFIRMED'
+        group by event_id
+      ) b on b.event_id = e.id
+      left join (
+        select event_id, count(*) as cnt
+        from seat_holds
+        group by event_id
+      ) h on h.event_id = e.id
+      where e.confirmed_count <> coalesce(b.cnt, 0)
+         or e.held_count <> coalesce(h.cnt, 0)
+    """, nativeQuery = true)
+    List<SeatCounterDrift> findSeatCounterDrift();
+
+    // Rewrite both counters from their tables; caller must hold the event row lock
+    @Modifying
+    @Query(value = """
+      update events
+      set confirmed_count = (select count(*) from bookings b where b.event_id = :id and b.status = 'CONFIRMED'),
+          held_count = (select count(*) from seat_holds h where h.event_id = :id)
+      where id = :id
+    """, nativeQuery = true)
+    int resyncConfirmedCount(@Param("id") Long id);
+
+    @Query(value = "select id from events where id = :id for update", nativeQuery = true)
+    Optional<Long> lockRowById(@Param("id") Long id);
 }
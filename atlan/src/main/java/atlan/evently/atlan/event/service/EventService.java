@@ -3,6 +3,7 @@ package atlan.evently.atlan.event.service;
 
 import atlan.evently.atlan.event.model.Event;
 import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.waitlist.service.WaitlistPromoter;
 import java.time.OffsetDateTime;
 import java.util.List;
 import org.springframework.cache.annotation.CacheEvict;
@@ -25,8 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class EventService {
     private final EventRepository events;
-    public EventService(EventRepository events) {
+    private final WaitlistPromoter waitlistPromoter;
+    public EventService(EventRepository events, WaitlistPromoter waitlistPromoter) {
         this.events = events;
+        this.waitlistPromoter = waitlistPromoter;
     }
 
     /**
@@ -59,6 +62,8 @@ public class EventService {
         e.setVenue(venue);
         e.setStartTime(start);
         e.setEndTime(end);
+        // More seats may let waitlisted users in once this commits
+        if (capacity > e.getCapacity()) waitlistPromoter.seatsFreedAfterCommit(id);
         e.setCapacity(capacity);
         // Entity is dirty and will be flushed/committed; version increments on commit
         return e;
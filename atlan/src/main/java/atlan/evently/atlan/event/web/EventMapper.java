@@ -17,6 +17,7 @@ public final class EventMapper {
         r.setStartTime(e.getStartTime());
         r.setEndTime(e.getEndTime());
         r.setCapacity(e.getCapacity());
+        r.setCanceledAt(e.getCanceledAt());
         return r;
     }
 
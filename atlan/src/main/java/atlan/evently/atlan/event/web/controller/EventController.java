@@ -7,6 +7,7 @@ import atlan.evently.atlan.event.web.dto.EventCreateRequest;
 import atlan.evently.atlan.event.web.dto.EventResponse;
 import atlan.evently.atlan.event.web.dto.EventUpdateRequest;
 import atlan.evently.atlan.event.web.EventMapper;
+import atlan.evently.atlan.idempotency.Idempotent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -81,6 +82,7 @@ public class EventController {
             @ApiResponse(responseCode = "400", description = "Invalid input, such as invalid dates or missing fields", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "403", description = "Forbidden, user does not have admin rights", content = { @Content(schema = @Schema()) })
     })
+    @Idempotent
     @PostMapping
     public ResponseEntity<EventResponse> create(@Valid @RequestBody EventCreateRequest req) {
         Event e = events.create(req.getName(), req.getVenue(), req.getStartTime(), req.getEndTime(), req.getCapacity());
@@ -105,6 +107,7 @@ public class EventController {
             @ApiResponse(responseCode = "403", description = "Forbidden, user does not have admin rights", content = { @Content(schema = @Schema()) }),
             @ApiResponse(responseCode = "404", description = "Event not found with the given ID", content = { @Content(schema = @Schema()) })
     })
+    @Idempotent
     @PutMapping("/{id}")
     public ResponseEntity<EventResponse> update(
             @Parameter(description = "Unique ID of the event to update") @PathVariable Long id,
@@ -64,6 +64,8 @@ public class EventResponse {
     private OffsetDateTime startTime;
     private OffsetDateTime endTime;
     private int capacity;
+    // Set when the event has been called off
+    private OffsetDateTime canceledAt;
 
     // getters and setters
 }
@@ -3,15 +3,32 @@ package atlan.evently.atlan.idempotency;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 
 public final class IdempotencyUtil {
     private static final HexFormat HEX = HexFormat.of();
-    public static String sha256(String s) {
+    // MessageDigest is not thread-safe; one instance per thread instead of a provider lookup per call
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
         try {
-            var md = MessageDigest.getInstance("SHA-256");
-            return HEX.formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) { throw new IllegalStateException(e); }
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) { throw new IllegalStateException(e); }
+    });
+
+    public static String sha256(String s) {
+        return sha256(s.getBytes(StandardCharsets.UTF_8));
     }
+
+    /** Hash of the parts in order; a 0 byte between parts keeps ("ab","c") and ("a","bc") apart. */
+    public static String sha256(byte[]... parts) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) md.update((byte) 0);
+            md.update(parts[i]);
+        }
+        return HEX.formatHex(md.digest());
+    }
+
     private IdempotencyUtil() {}
 }
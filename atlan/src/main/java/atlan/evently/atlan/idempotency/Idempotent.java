@@ -0,0 +1,25 @@
+// src/main/java/atlan/evently/atlan/idempotency/Idempotent.java
+package atlan.evently.atlan.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Makes a mutating handler (POST/PUT/DELETE returning ResponseEntity) safe to retry with an
+ * Idempotency-Key header: the first request runs, successful responses are stored, and retries with
+ * the same key and request are answered from the store without running the handler again.
+ * The request fingerprint covers method, path, query, caller and the bound request body.
+ * See IdempotencyInterceptor.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Idempotent {
+
+    /** Reject requests without an Idempotency-Key (400) instead of running them unprotected. */
+    boolean required() default false;
+}
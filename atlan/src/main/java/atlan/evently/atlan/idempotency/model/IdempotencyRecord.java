@@ -9,8 +9,10 @@ import lombok.*;
 
 @Entity
 @Table(name = "idempotency_records",
-        indexes = @Index(name = "ux_idem_key_endpoint",
-                columnList = "idempotency_key,endpoint", unique = true))
+        indexes = {
+                @Index(name = "ux_idem_key_endpoint", columnList = "idempotency_key,endpoint", unique = true),
+                @Index(name = "ix_idem_expires_at", columnList = "expires_at") // retention purge
+        })
 @Getter @Setter @NoArgsConstructor
 public class IdempotencyRecord {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,8 +36,9 @@ public class IdempotencyRecord {
     @Column(name="response_code")
     private Integer responseCode;
 
-    @Lob
-    @Column(name="response_body")
+    // SUCCESS: serialized response JSON (replayed as is); FAILURE: the error message.
+    // Plain text rather than @Lob so the JDBC batch/CTE writers can set it directly.
+    @Column(name="response_body", columnDefinition = "text")
     private String responseBody;
 
     @Column(name="booking_id")
@@ -0,0 +1,120 @@
+// src/main/java/atlan/evently/atlan/idempotency/repo/IdempotencyBatchRepository.java
+package atlan.evently.atlan.idempotency.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Multi-row idempotency writes for batched execution paths:
+ * one INSERT claims every key of a batch, one UPDATE records every outcome.
+ * Also the retention purge and the table statistics it reports.
+ */
+@Repository
+public class IdempotencyBatchRepository {
+
+    public record Claim(String key, String endpoint, Long userId, String requestHash) {}
+
+    public record Outcome(String key, String endpoint, String status, int responseCode, Long bookingId,
+                          String responseBody) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public IdempotencyBatchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** First-wins insert for all claims; returns "key\nendpoint" for the rows this call inserted. */
+    public Set<String> tryInsertAll(List<Claim> claims, OffsetDateTime expiresAt) {
+        var params = new MapSqlParameterSource().addValue("exp", expiresAt);
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < claims.size(); i++) {
+            Claim c = claims.get(i);
+            if (i > 0) values.append(", ");
+            values.append("(:k").append(i).append(", :e").append(i).append(", :u").append(i)
+                    .append(", :h").append(i).append(", 'IN_PROGRESS', now(), :exp)");
+            params.addValue("k" + i, c.key())
+                    .addValue("e" + i, c.endpoint())
+                    .addValue("u" + i, c.userId())
+                    .addValue("h" + i, c.requestHash());
+        }
+        Set<String> inserted = new HashSet<>();
+        jdbc.query("""
+                insert into idempotency_records
+                  (idempotency_key, endpoint, user_id, request_hash, status, created_at, expires_at)
+                values """ + values + """
+                 on conflict (idempotency_key, endpoint) do nothing
+                returning idempotency_key, endpoint
+                """, params, rs -> { inserted.add(rs.getString(1) + "\n" + rs.getString(2)); });
+        return inserted;
+    }
+
+    /** Record every outcome of a batch in a single UPDATE ... FROM (VALUES ...). */
+    public int recordOutcomes(List<Outcome> outcomes) {
+        if (outcomes.isEmpty()) return 0;
+        var params = new MapSqlParameterSource();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome o = outcomes.get(i);
+            if (i > 0) values.append(", ");
+            values.append("(:k").append(i).append(", :e").append(i).append(", :s").append(i)
+                    .append(", cast(:c").append(i).append(" as integer), cast(:b").append(i).append(" as bigint)")
+                    .append(", cast(:r").append(i).append(" as text))");
+            params.addValue("k" + i, o.key())
+                    .addValue("e" + i, o.endpoint())
+                    .addValue("s" + i, o.status())
+                    .addValue("c" + i, o.responseCode())
+                    .addValue("b" + i, o.bookingId())
+                    .addValue("r" + i, o.responseBody());
+        }
+        return jdbc.update("""
+                update idempotency_records r
+                set status = v.status, response_code = v.code, booking_id = v.booking_id, response_body = v.body
+                from (values """ + values + """
+                ) as v(k, e, status, code, booking_id, body)
+                where r.idempotency_key = v.k and r.endpoint = v.e
+                """, params);
+    }
+
+    /** Size of idempotency_records from the catalog (planner estimate; no scan). */
+    public record TableStats(long estimatedRows, long totalBytes) {}
+
+    /**
+     * Delete up to {@code limit} expired records, oldest first, via the expires_at index.
+     * SKIP LOCKED keeps concurrent purgers (other nodes) from queueing on each other's rows.
+     */
+    public int purgeExpired(OffsetDateTime now, int limit) {
+        var params = new MapSqlParameterSource().addValue("now", now).addValue("limit", limit);
+        return jdbc.update("""
+                delete from idempotency_records
+                where id in (
+                  select id from idempotency_records
+                  where expires_at < :now
+                  order by expires_at
+                  limit :limit
+                  for update skip locked
+                )
+                """, params);
+    }
+
+    /** Expiry of the oldest record still present (index min lookup); empty when the table is empty. */
+    public Optional<OffsetDateTime> oldestExpiry() {
+        return Optional.ofNullable(jdbc.getJdbcTemplate().queryForObject(
+                "select min(expires_at) from idempotency_records", OffsetDateTime.class));
+    }
+
+    public TableStats tableStats() {
+        return jdbc.getJdbcTemplate().queryForObject("""
+                select greatest(c.reltuples, 0)::bigint as est_rows,
+                       pg_total_relation_size(c.oid)    as total_bytes
+                from pg_class c
+                where c.oid = 'idempotency_records'::regclass
+                """, (rs, i) -> new TableStats(rs.getLong("est_rows"), rs.getLong("total_bytes")));
+    }
+}
@@ -6,6 +6,7 @@ import java.time.OffsetDateTime;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
@@ -25,4 +26,75 @@ public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRe
                   @Param("userId") Long userId,
                   @Param("hash") String hash,
                   @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+      UPDATE idempotency_records
+      SET status = 'SUCCESS', response_code = :code, response_body = :body
+      WHERE idempotency_key = :key AND endpoint = :endpoint AND status = 'IN_PROGRESS'
+    """, nativeQuery = true)
+    int recordSuccess(@Param("key") String key,
+                      @Param("endpoint") String endpoint,
+                      @Param("code") int code,
+                      @Param("body") String body);
+
+    /** Fill in the body of a SUCCESS row recorded without one; a body already stored is kept. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+      UPDATE idempotency_records
+      SET response_body = :body
+      WHERE idempotency_key = :key AND endpoint = :endpoint AND status = 'SUCCESS' AND response_body IS NULL
+    """, nativeQuery = true)
+    int storeResponseBody(@Param("key") String key,
+                          @Param("endpoint") String endpoint,
+                          @Param("body") String body);
+
+    /**
+     * Re-claim an IN_PROGRESS row whose claim is older than {@code staleBefore} (created_at is the claim time):
+     * its owner died between committing the handler's work and recording the outcome. 1 when taken over.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+      UPDATE idempotency_records
+      SET created_at = NOW(), user_id = :userId, expires_at = :expiresAt
+      WHERE idempotency_key = :key AND endpoint = :endpoint AND status = 'IN_PROGRESS' AND created_at < :staleBefore
+    """, nativeQuery = true)
+    int takeOverStaleClaim(@Param("key") String key,
+                           @Param("endpoint") String endpoint,
+                           @Param("userId") Long userId,
+                           @Param("staleBefore") OffsetDateTime staleBefore,
+                           @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /**
+     * Store a FAILURE outcome whose booking transaction (claim included) was rolled back.
+     * Runs in its own transaction: it is called from an after-rollback callback, where the original
+     * transaction's resources may still be bound. A key claimed again meanwhile wins (DO NOTHING).
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+      INSERT INTO idempotency_records
+        (idempotency_key, endpoint, user_id, request_hash, status, response_code, response_body, created_at, expires_at)
+      VALUES (:key, :endpoint, :userId, :hash, 'FAILURE', :code, :body, NOW(), :expiresAt)
+      ON CONFLICT (idempotency_key, endpoint) DO NOTHING
+    """, nativeQuery = true)
+    int insertFailure(@Param("key") String key,
+                      @Param("endpoint") String endpoint,
+                      @Param("userId") Long userId,
+                      @Param("hash") String hash,
+                      @Param("code") int code,
+                      @Param("body") String body,
+                      @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /** Drop an unfinished claim so a retry can run the request again. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+      DELETE FROM idempotency_records
+      WHERE idempotency_key = :key AND endpoint = :endpoint AND status = 'IN_PROGRESS'
+    """, nativeQuery = true)
+    int releaseClaim(@Param("key") String key, @Param("endpoint") String endpoint);
 }
@@ -0,0 +1,84 @@
+// src/main/java/atlan/evently/atlan/idempotency/service/IdempotencyInFlight.java
+package atlan.evently.atlan.idempotency.service;
+
+import atlan.evently.atlan.common.web.RetryAfterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests carrying the same (key, endpoint) on this node.
+ * - The first request runs; duplicates wait (bounded by idempotency.in-flight.wait-ms) for it to finish,
+ *   without holding a connection or an admission slot, then re-run the same path, which now replays the
+ *   stored outcome (or re-executes if the first attempt rolled back).
+ * - A wait that times out gets 409 with Retry-After instead of a bare 409.
+ * Across nodes no extra signalling is needed: the record insert (ON CONFLICT DO NOTHING) already blocks in
+ * Postgres until the transaction holding the same key commits or rolls back.
+ * Metrics: idempotency.in-flight.waits tagged outcome=completed|timeout.
+ */
+@Component
+public class IdempotencyInFlight {
+
+    private final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+    private final long waitMs;
+    private final Counter completed;
+    private final Counter timedOut;
+
+    public IdempotencyInFlight(MeterRegistry meters,
+                               @Value("${idempotency.in-flight.wait-ms:5000}") long waitMs) {
+        this.waitMs = waitMs;
+        this.completed = waits(meters, "completed");
+        this.timedOut = waits(meters, "timeout");
+    }
+
+    /** Run {@code execution} unless the same key is already running here; then wait for it and run it again. */
+    public <T> T runOnce(String key, String endpoint, Supplier<T> execution) {
+        String id = endpoint + '\n' + key;
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> leader = running.putIfAbsent(id, mine);
+        if (leader == null) {
+            try {
+                return execution.get();
+            } finally {
+                running.remove(id, mine);
+                mine.complete(null);
+            }
+        }
+        await(leader);
+        return execution.get();
+    }
+
+    private void await(CompletableFuture<Void> leader) {
+        try {
+            leader.get(waitMs, TimeUnit.MILLISECONDS);
+            completed.increment();
+        } catch (TimeoutException ex) {
+            timedOut.increment();
+            throw new RetryAfterException(HttpStatus.CONFLICT,
+                    "Request with this Idempotency-Key is in progress", Math.max(1, waitMs / 1000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RetryAfterException(HttpStatus.CONFLICT,
+                    "Request with this Idempotency-Key is in progress", 1);
+        } catch (ExecutionException ex) {
+            // never completed exceptionally
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static Counter waits(MeterRegistry meters, String outcome) {
+        return Counter.builder("idempotency.in-flight.waits").tag("outcome", outcome)
+                .description("Duplicate idempotent requests that waited for the in-flight original")
+                .register(meters);
+    }
+}
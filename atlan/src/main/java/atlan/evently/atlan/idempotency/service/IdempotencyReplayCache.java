@@ -0,0 +1,98 @@
+// src/main/java/atlan/evently/atlan/idempotency/service/IdempotencyReplayCache.java
+package atlan.evently.atlan.idempotency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of COMPLETED idempotent outcomes, keyed by (key, endpoint).
+ * - Holds the request hash plus the serialized response, so a retry is answered without a
+ *   transaction, a connection, or the record/booking reads of the DB replay path.
+ * - Only successful outcomes are cached, and only after their transaction committed.
+ * - A miss (evicted, other node, restart) simply falls through to the DB path, which stays the source of truth.
+ * Metrics: cache.* meters tagged cache=idempotencyReplay.
+ */
+@Component
+public class IdempotencyReplayCache {
+
+    private record Entry(String requestHash, int status, String body) {}
+
+    private final Cache<String, Entry> cache;
+    private final ObjectMapper json;
+
+    public IdempotencyReplayCache(ObjectMapper json,
+                                  MeterRegistry meters,
+                                  @Value("${idempotency.replay-cache.max-size:50000}") long maxSize,
+                                  @Value("${idempotency.replay-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.json = json;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meters, cache, "idempotencyReplay");
+    }
+
+    /**
+     * Cached response for a retried request, if any.
+     * Same key with a different payload is rejected exactly like the DB path (409).
+     */
+    public <T> Optional<ResponseEntity<T>> replay(String key, String endpoint, String requestHash, TypeReference<T> type) {
+        return replay(key, endpoint, requestHash, json.getTypeFactory().constructType(type));
+    }
+
+    /** Same as above for a body type only known at runtime (annotated handlers). */
+    public <T> Optional<ResponseEntity<T>> replay(String key, String endpoint, String requestHash, JavaType type) {
+        Entry e = cache.getIfPresent(cacheKey(key, endpoint));
+        if (e == null) return Optional.empty();
+        if (!e.requestHash().equals(requestHash)) {
+            throw new IllegalStateException("Idempotency-Key reuse with different request (409)");
+        }
+        try {
+            T body = e.body() == null ? null : json.readValue(e.body(), type);
+            return Optional.of(ResponseEntity.status(e.status()).body(body));
+        } catch (JsonProcessingException ex) {
+            cache.invalidate(cacheKey(key, endpoint));
+            return Optional.empty();
+        }
+    }
+
+    /** Remember a completed outcome once the current transaction commits (immediately if there is none). */
+    public void putAfterCommit(String key, String endpoint, String requestHash, int status, Object body) {
+        String serialized;
+        try {
+            serialized = body == null ? null : json.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            return; // not cacheable; the DB path still replays it
+        }
+        Entry e = new Entry(requestHash, status, serialized);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(cacheKey(key, endpoint), e);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(cacheKey(key, endpoint), e);
+            }
+        });
+    }
+
+    private static String cacheKey(String key, String endpoint) {
+        return endpoint + '\n' + key;
+    }
+}
@@ -0,0 +1,91 @@
+// src/main/java/atlan/evently/atlan/idempotency/service/IdempotencyRetentionService.java
+package atlan.evently.atlan.idempotency.service;
+
+import atlan.evently.atlan.idempotency.repo.IdempotencyBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retention for idempotency_records: rows past expires_at are deleted so the table and its
+ * (idempotency_key, endpoint) unique index stay at roughly one retention window of traffic.
+ * - Each run deletes in short autocommit batches through the expires_at index, oldest first, and stops
+ *   after idempotency.retention.max-batches or idempotency.retention.max-run-ms, whichever comes first,
+ *   so a backlog is worked off over several runs without holding a scheduler thread for long.
+ * - The table is not partitioned: Postgres cannot enforce a unique index across partitions unless it
+ *   includes the partition key, and a per-day (key, endpoint) guarantee would let a retry that crosses
+ *   midnight execute twice. Steady batched deletes give the same bounded size; vacuum reuses the space.
+ * Metrics: idempotency.records.rows / .bytes (catalog estimate), idempotency.records.purge-lag
+ * (seconds the oldest expired row has been waiting) and idempotency.records.purged.
+ */
+@Component
+public class IdempotencyRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyRetentionService.class);
+
+    private final IdempotencyBatchRepository records;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long maxRunNanos;
+    private final Counter purged;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong purgeLagSeconds = new AtomicLong();
+
+    public IdempotencyRetentionService(IdempotencyBatchRepository records,
+                                       MeterRegistry meters,
+                                       @Value("${idempotency.retention.batch-size:5000}") int batchSize,
+                                       @Value("${idempotency.retention.max-batches:100}") int maxBatches,
+                                       @Value("${idempotency.retention.max-run-ms:2000}") long maxRunMs) {
+        this.records = records;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.maxRunNanos = Duration.ofMillis(Math.max(1, maxRunMs)).toNanos();
+        this.purged = Counter.builder("idempotency.records.purged")
+                .description("Expired idempotency records deleted")
+                .register(meters);
+        Gauge.builder("idempotency.records.rows", rows, AtomicLong::get)
+                .description("Estimated rows in idempotency_records")
+                .register(meters);
+        Gauge.builder("idempotency.records.bytes", bytes, AtomicLong::get)
+                .description("Total size of idempotency_records including indexes")
+                .baseUnit("bytes")
+                .register(meters);
+        Gauge.builder("idempotency.records.purge-lag", purgeLagSeconds, AtomicLong::get)
+                .description("How long the oldest expired idempotency record has been waiting for purge")
+                .baseUnit("seconds")
+                .register(meters);
+    }
+
+    @Scheduled(initialDelayString = "${idempotency.retention.initial-delay-ms:60000}",
+               fixedDelayString = "${idempotency.retention.interval-ms:300000}")
+    public void purge() {
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            long start = System.nanoTime();
+            for (int i = 0; i < maxBatches; i++) {
+                int n = records.purgeExpired(now, batchSize);
+                purged.increment(n);
+                if (n < batchSize || System.nanoTime() - start > maxRunNanos) break;
+            }
+            purgeLagSeconds.set(records.oldestExpiry()
+                    .filter(exp -> exp.isBefore(now))
+                    .map(exp -> Duration.between(exp, now).toSeconds())
+                    .orElse(0L));
+            IdempotencyBatchRepository.TableStats stats = records.tableStats();
+            rows.set(stats.estimatedRows());
+            bytes.set(stats.totalBytes());
+        } catch (RuntimeException ex) {
+            log.warn("Idempotency record purge failed; will retry next run", ex);
+        }
+    }
+}
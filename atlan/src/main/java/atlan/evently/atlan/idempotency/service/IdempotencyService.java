@@ -7,20 +7,131 @@ import atlan.evently.atlan.idempotency.model.IdempotencyRecord;
 import atlan.evently.atlan.idempotency.repo.IdempotencyRecordRepository;
 import atlan.evently.atlan.booking.web.BookingMapper;
 import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.common.web.RetryAfterException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
     private final IdempotencyRecordRepository repo;
     private final BookingRepository bookingRepo;
+    private final ObjectMapper json;
+    private final IdempotencyReplayCache replayCache;
+    private final IdempotencyInFlight inFlight;
+    private final long claimLeaseSeconds;
 
-    public IdempotencyService(IdempotencyRecordRepository repo, BookingRepository bookingRepo) {
+    public IdempotencyService(IdempotencyRecordRepository repo, BookingRepository bookingRepo, ObjectMapper json,
+                              IdempotencyReplayCache replayCache, IdempotencyInFlight inFlight,
+                              @Value("${idempotency.claim-lease-seconds:60}") long claimLeaseSeconds) {
         this.repo = repo;
         this.bookingRepo = bookingRepo;
+        this.json = json;
+        this.replayCache = replayCache;
+        this.inFlight = inFlight;
+        this.claimLeaseSeconds = claimLeaseSeconds;
+    }
+
+    /**
+     * Generic path behind @Idempotent handlers, for work that runs its own transactions (and may be
+     * dispatched to another thread), so claim, handler and outcome cannot share one transaction:
+     * - the key is claimed IN_PROGRESS in a short transaction of its own;
+     * - a 2xx response is stored as SUCCESS (status + serialized body) and put in the replay cache;
+     * - anything else releases the claim, so a retry runs the handler again, as on the booking path;
+     * - a claim older than idempotency.claim-lease-seconds (its node died before recording the outcome)
+     *   is taken over by the next retry.
+     * Known keys replay from the cache or the record; {@code bodyType} is the handler's ResponseEntity body type.
+     */
+    public <T> ResponseEntity<T> execute(String key, String endpoint, Long userId, String requestHash,
+                                         JavaType bodyType, Supplier<ResponseEntity<T>> handler) {
+        return inFlight.runOnce(key, endpoint, () -> {
+            Optional<ResponseEntity<T>> cached = replayCache.replay(key, endpoint, requestHash, bodyType);
+            if (cached.isPresent()) return cached.get();
+
+            OffsetDateTime now = OffsetDateTime.now();
+            if (repo.tryInsert(key, endpoint, userId, requestHash, now.plusDays(2)) == 0) {
+                IdempotencyRecord existing = repo.findByIdempotencyKeyAndEndpoint(key, endpoint)
+                        .orElseThrow(() -> new IllegalStateException("Idempotency record not found"));
+                if (!existing.getRequestHash().equals(requestHash)) {
+                    throw new IllegalStateException("Idempotency-Key reuse with different request (409)");
+                }
+                switch (existing.getStatus()) {
+                    case "SUCCESS" -> {
+                        int code = existing.getResponseCode() == null ? 200 : existing.getResponseCode();
+                        T body = existing.getResponseBody() == null ? null : read(existing.getResponseBody(), bodyType);
+                        replayCache.putAfterCommit(key, endpoint, requestHash, code, body);
+                        return ResponseEntity.status(code).body(body);
+                    }
+                    case "FAILURE" -> throw replayFailure(existing);
+                    case "IN_PROGRESS" -> {
+                        // The claim commits on its own, so a node that died mid-request leaves it behind;
+                        // after the lease it is taken over instead of answering 409 until expiry
+                        if (repo.takeOverStaleClaim(key, endpoint, userId, now.minusSeconds(claimLeaseSeconds), now.plusDays(2)) == 0) {
+                            throw inProgress();
+                        }
+                    }
+                    default -> {
+                        return ResponseEntity.status(500).build();
+                    }
+                }
+            }
+
+            boolean stored = false;
+            try {
+                ResponseEntity<T> response = handler.get();
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    int code = response.getStatusCode().value();
+                    T body = response.getBody();
+                    repo.recordSuccess(key, endpoint, code, body == null ? null : write(body));
+                    stored = true;
+                    replayCache.putAfterCommit(key, endpoint, requestHash, code, body);
+                }
+                return response;
+            } finally {
+                if (!stored) repo.releaseClaim(key, endpoint);
+            }
+        });
+    }
+
+    /** Answer a retried single booking from memory (no transaction, no DB); empty on a cache miss. */
+    public Optional<ResponseEntity<BookingResponse>> replayCachedBooking(String key, String endpoint, String requestHash) {
+        return replayCache.replay(key, endpoint, requestHash, new TypeReference<BookingResponse>() {});
+    }
+
+    /** Group variant of {@link #replayCachedBooking}. */
+    public Optional<ResponseEntity<List<BookingResponse>>> replayCachedGroupBooking(String key, String endpoint, String requestHash) {
+        return replayCache.replay(key, endpoint, requestHash, new TypeReference<List<BookingResponse>>() {});
+    }
+
+    /** Record a success produced outside this service (single-statement / group-commit paths) for in-memory replay. */
+    public void rememberSuccess(String key, String endpoint, String requestHash, BookingResponse body) {
+        replayCache.putAfterCommit(key, endpoint, requestHash, 201, body);
+    }
+
+    /**
+     * Store the response of a SUCCESS record that was written without one (single-statement path).
+     * Joins the caller's transaction, so the body commits with the booking.
+     */
+    public void storeSuccessBody(String key, String endpoint, BookingResponse body) {
+        repo.storeResponseBody(key, endpoint, write(body));
     }
 
     @Transactional
@@ -39,21 +150,19 @@ public class IdempotencyService {
                 throw new IllegalStateException("Idempotency-Key reuse with different request (409)");
             }
 
-            // Replay previous result
+            // Replay previous result straight from the record (no booking lookup or mapping)
             return switch (existing.getStatus()) {
                 case "SUCCESS" -> {
-                    var booking = bookingRepo.findById(existing.getBookingId())
-                            .orElse(null);
-                    if (booking == null) {
-                        // Fallback to stored response body/code if persisted
-                        yield ResponseEntity.status(existing.getResponseCode() == null ? 200 : existing.getResponseCode())
-                                .build();
-                    }
-                    yield ResponseEntity.status(existing.getResponseCode() == null ? 201 : existing.getResponseCode())
-                            .body(BookingMapper.toResponse(booking));
+                    int code = existing.getResponseCode() == null ? 201 : existing.getResponseCode();
+                    BookingResponse body = existing.getResponseBody() != null
+                            ? read(existing.getResponseBody(), new TypeReference<BookingResponse>() {})
+                            : legacyBody(existing.getBookingId());
+                    if (body == null) yield ResponseEntity.status(code).build();
+                    replayCache.putAfterCommit(key, endpoint, requestHash, code, body);
+                    yield ResponseEntity.status(code).body(body);
                 }
-                case "FAILURE" -> ResponseEntity.status(existing.getResponseCode() == null ? 422 : existing.getResponseCode()).build();
-                case "IN_PROGRESS" -> ResponseEntity.status(409).build(); // advise client to retry after a short delay
+                case "FAILURE" -> throw replayFailure(existing);
+                case "IN_PROGRESS" -> throw inProgress();
                 default -> ResponseEntity.status(500).build();
             };
         }
@@ -65,15 +174,130 @@ public class IdempotencyService {
             rec.setStatus("SUCCESS");
             rec.setBookingId(booking.getId());
             rec.setResponseCode(201);
-            // Optionally serialize the response body JSON to rec.setResponseBody(...)
-            // repo.save(rec); // not needed if JPA tracks entity; call if detached
-            return ResponseEntity.status(201).body(BookingMapper.toResponse(booking));
+            BookingResponse body = BookingMapper.toResponse(booking);
+            rec.setResponseBody(write(body));
+            replayCache.putAfterCommit(key, endpoint, requestHash, 201, body);
+            return ResponseEntity.status(201).body(body);
         } catch (RuntimeException ex) {
+            throw failedAfterRollback(key, endpoint, userId, requestHash, ex);
+        }
+    }
+
+    /** Group variant: booking_id holds the first seat's booking; the stored body carries the whole group. */
+    @Transactional
+    public ResponseEntity<List<BookingResponse>> executeCreateGroupBooking(
+            String key, String endpoint, Long userId, String requestHash,
+            Supplier<List<Booking>> action) {
+
+        int inserted = repo.tryInsert(key, endpoint, userId, requestHash, OffsetDateTime.now().plusDays(2));
+        if (inserted == 0) {
+            IdempotencyRecord existing = repo.findByIdempotencyKeyAndEndpoint(key, endpoint)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency record not found"));
+
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new IllegalStateException("Idempotency-Key reuse with different request (409)");
+            }
+
+            return switch (existing.getStatus()) {
+                case "SUCCESS" -> {
+                    int code = existing.getResponseCode() == null ? 201 : existing.getResponseCode();
+                    List<BookingResponse> body = existing.getResponseBody() == null ? null
+                            : read(existing.getResponseBody(), new TypeReference<List<BookingResponse>>() {});
+                    if (body != null) replayCache.putAfterCommit(key, endpoint, requestHash, code, body);
+                    yield ResponseEntity.status(code).body(body);
+                }
+                case "FAILURE" -> throw replayFailure(existing);
+                case "IN_PROGRESS" -> throw inProgress();
+                default -> ResponseEntity.status(500).build();
+            };
+        }
+
+        try {
+            List<BookingResponse> body = BookingMapper.toResponseList(action.get());
             IdempotencyRecord rec = repo.findByIdempotencyKeyAndEndpoint(key, endpoint).orElseThrow();
-            rec.setStatus("FAILURE");
-            rec.setResponseCode(409); // or 422 based on exception mapping
-            // rec.setResponseBody(...optional error json...)
-            throw ex;
+            rec.setStatus("SUCCESS");
+            rec.setBookingId(body.get(0).getId());
+            rec.setResponseCode(201);
+            rec.setResponseBody(write(body));
+            replayCache.putAfterCommit(key, endpoint, requestHash, 201, body);
+            return ResponseEntity.status(201).body(body);
+        } catch (RuntimeException ex) {
+            throw failedAfterRollback(key, endpoint, userId, requestHash, ex);
+        }
+    }
+
+    /**
+     * The booking transaction is about to roll back on {@code ex}, taking the claim with it. Business failures
+     * (bad input, conflict) are then stored as FAILURE in a transaction of their own, so a retry with the same
+     * key replays the error instead of running again. Transient errors (lock/serialization failures, 429/503)
+     * are not stored: the retry executor or the client runs the request again. Returns {@code ex} for throwing.
+     */
+    public RuntimeException failedAfterRollback(String key, String endpoint, Long userId, String requestHash,
+                                                RuntimeException ex) {
+        if (!isReplayableFailure(ex) || !TransactionSynchronizationManager.isSynchronizationActive()) return ex;
+        int code = failureCode(ex);
+        String message = ex.getMessage();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) return;
+                try {
+                    repo.insertFailure(key, endpoint, userId, requestHash, code, message, OffsetDateTime.now().plusDays(2));
+                } catch (RuntimeException e) {
+                    log.warn("Could not store idempotent failure for key {}; a retry will run the request again", key, e);
+                }
+            }
+        });
+        return ex;
+    }
+
+    private static boolean isReplayableFailure(RuntimeException ex) {
+        if (ex instanceof RetryAfterException) return false;
+        if (ex instanceof ResponseStatusException rse) return rse.getStatusCode().is4xxClientError();
+        return ex instanceof IllegalArgumentException || ex instanceof IllegalStateException;
+    }
+
+    /** HTTP status the exception handler gives a booking failure (400 bad input, 409 conflict). */
+    public static int failureCode(RuntimeException ex) {
+        if (ex instanceof ResponseStatusException rse) return rse.getStatusCode().value();
+        return ex instanceof IllegalArgumentException ? 400 : 409;
+    }
+
+    /** Serialized form stored in response_body; replays deserialize it with the same mapper, so retries are byte-identical. */
+    public String write(Object body) {
+        try {
+            return json.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotent response", ex);
+        }
+    }
+
+    private <T> T read(String body, TypeReference<T> type) {
+        return read(body, json.getTypeFactory().constructType(type));
+    }
+
+    private <T> T read(String body, JavaType type) {
+        try {
+            return json.readValue(body, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", ex);
         }
     }
+
+    // Records written before bodies were stored: rebuild from the booking row
+    private BookingResponse legacyBody(Long bookingId) {
+        if (bookingId == null) return null;
+        return bookingRepo.findById(bookingId).map(BookingMapper::toResponse).orElse(null);
+    }
+
+    // Claimed by a request still running on another node; same-node duplicates wait in IdempotencyInFlight instead
+    private RetryAfterException inProgress() {
+        return new RetryAfterException(HttpStatus.CONFLICT, "Request with this Idempotency-Key is in progress", 1);
+    }
+
+    // FAILURE rows keep the status and error message; rethrowing renders the same error body as the original
+    private ResponseStatusException replayFailure(IdempotencyRecord existing) {
+        int code = existing.getResponseCode() == null ? 422 : existing.getResponseCode();
+        return new ResponseStatusException(HttpStatusCode.valueOf(code), existing.getResponseBody());
+    }
 }
@@ -0,0 +1,121 @@
+// src/main/java/atlan/evently/atlan/idempotency/web/IdempotencyInterceptor.java
+package atlan.evently.atlan.idempotency.web;
+
+import atlan.evently.atlan.idempotency.Idempotent;
+import atlan.evently.atlan.idempotency.IdempotencyUtil;
+import atlan.evently.atlan.idempotency.service.IdempotencyService;
+import atlan.evently.atlan.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Around-advice for {@link Idempotent} handler methods.
+ * - Endpoint = HTTP method + matched route pattern ("DELETE:/api/v1/bookings/{id}/cancel"), so one key
+ *   namespace per route; the concrete path, query, caller and body go into the fingerprint instead.
+ * - Fingerprint = one SHA-256 over those parts; the body part is the bound @RequestBody re-serialized,
+ *   so formatting or field order in the client's JSON does not change it.
+ * - Collaborators are looked up lazily: this advice is infrastructure and is created before them.
+ * Requests without an Idempotency-Key run unprotected unless the annotation requires one.
+ */
+public class IdempotencyInterceptor implements MethodInterceptor {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 80; // idempotency_records.idempotency_key
+
+    private final ObjectProvider<IdempotencyService> idempotency;
+    private final ObjectProvider<ObjectMapper> json;
+    private final Map<Method, JavaType> bodyTypes = new ConcurrentHashMap<>();
+
+    public IdempotencyInterceptor(ObjectProvider<IdempotencyService> idempotency, ObjectProvider<ObjectMapper> json) {
+        this.idempotency = idempotency;
+        this.json = json;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Idempotent spec = method.getAnnotation(Idempotent.class);
+        HttpServletRequest request = currentRequest();
+        if (spec == null || request == null) return invocation.proceed();
+
+        String key = request.getHeader(HEADER);
+        if (key == null || key.isBlank()) {
+            if (spec.required()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing " + HEADER + " header");
+            return invocation.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " longer than " + MAX_KEY_LENGTH);
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = auth != null && auth.getPrincipal() instanceof UserPrincipal p ? p.getId() : null;
+        String endpoint = request.getMethod() + ":" + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String requestHash = IdempotencyUtil.sha256(
+                utf8(request.getMethod()),
+                utf8(request.getRequestURI()),
+                utf8(request.getQueryString()),
+                utf8(auth != null ? auth.getName() : null),
+                requestBody(method, invocation.getArguments()));
+
+        return idempotency.getObject().execute(key, endpoint, userId, requestHash, bodyType(method), () -> {
+            try {
+                return (ResponseEntity<Object>) invocation.proceed();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    private byte[] requestBody(Method method, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (new MethodParameter(method, i).hasParameterAnnotation(RequestBody.class)) {
+                try {
+                    return json.getObject().writeValueAsBytes(args[i]);
+                } catch (JsonProcessingException ex) {
+                    throw new IllegalStateException("Request body cannot be fingerprinted", ex);
+                }
+            }
+        }
+        return new byte[0];
+    }
+
+    // Body type of ResponseEntity<T>, resolved once per handler method
+    private JavaType bodyType(Method method) {
+        return bodyTypes.computeIfAbsent(method, m -> {
+            ResolvableType body = ResolvableType.forMethodReturnType(m).as(ResponseEntity.class).getGeneric(0);
+            return json.getObject().getTypeFactory().constructType(body.getType());
+        });
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes a ? a.getRequest() : null;
+    }
+}
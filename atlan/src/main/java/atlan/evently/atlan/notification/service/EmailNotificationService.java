@@ -1,15 +1,15 @@
 // src/main/java/atlan/evently/atlan/notification/EmailNotificationService.java
 package atlan.evently.atlan.notification;
 
-import atlan.evently.atlan.booking.model.Booking;
-import atlan.evently.atlan.event.model.Event;
-import atlan.evently.atlan.user.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 @Service
 public class EmailNotificationService {
 
@@ -22,38 +22,63 @@ public class EmailNotificationService {
         this.mailSender = mailSender;
     }
 
+    /** A waitlist entry turned into a booking; plain values so the async sender needs no persistence context. */
+    public record WaitlistPromotion(String email, Long bookingId) {}
+
+    /** "Promoted from the waitlist" emails for one event, sent as a single JavaMailSender call. */
+    @Async
+    public void sendWaitlistPromotions(String eventName, String venue, OffsetDateTime startTime,
+                                       OffsetDateTime endTime, List<WaitlistPromotion> promotions) {
+        if (promotions == null || promotions.isEmpty()) return;
+
+        String subject = "Booking confirmed: " + eventName;
+        SimpleMailMessage[] batch = promotions.stream()
+                .filter(p -> p.email() != null)
+                .map(p -> {
+                    SimpleMailMessage msg = new SimpleMailMessage();
+                    msg.setFrom(from);
+                    msg.setTo(p.email());
+                    msg.setSubject(subject);
+                    msg.setText("""
+                        Hi %s,
+
+                        Great news! A spot opened up and your waitlist entry has been promoted to a confirmed booking.
+
+                        Event: %s
+                        Venue: %s
+                        Starts: %s
+                        Ends:   %s
+                        Booking ID: %d
+
+                        See you there!
+                        """.formatted(p.email(), eventName, venue, startTime, endTime, p.bookingId()));
+                    return msg;
+                }).toArray(SimpleMailMessage[]::new);
+        if (batch.length > 0) mailSender.send(batch);
+    }
+
+    /** One batch of "event cancelled" emails, sent as a single JavaMailSender call (one SMTP session). */
     @Async
-    public void sendWaitlistPromotion(User user, Event event, Booking booking) {
-        if (user == null || user.getEmail() == null) return;
+    public void sendEventCancellation(String eventName, OffsetDateTime startTime, List<String> recipients) {
+        if (recipients == null || recipients.isEmpty()) return;
 
-        String display = user.getEmail(); // safe fallback to email if no name field
-        String subject = "Booking confirmed: " + event.getName();
+        String subject = "Event cancelled: " + eventName;
         String body = """
-            Hi %s,
-
-            Great news! A spot opened up and your waitlist entry has been promoted to a confirmed booking.
-
-            Event: %s
-            Venue: %s
-            Starts: %s
-            Ends:   %s
-            Booking ID: %d
-
-            See you there!
-            """.formatted(
-                display,
-                event.getName(),
-                event.getVenue(),
-                event.getStartTime(),
-                event.getEndTime(),
-                booking.getId()
-        );
-
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setFrom(from);
-        msg.setTo(user.getEmail());
-        msg.setSubject(subject);
-        msg.setText(body);
-        mailSender.send(msg);
+            Hi,
+
+            We're sorry: %s (scheduled for %s) has been cancelled, and your booking has been cancelled with it.
+
+            You don't need to do anything.
+            """.formatted(eventName, startTime);
+
+        SimpleMailMessage[] batch = recipients.stream().map(to -> {
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setFrom(from);
+            msg.setTo(to);
+            msg.setSubject(subject);
+            msg.setText(body);
+            return msg;
+        }).toArray(SimpleMailMessage[]::new);
+        mailSender.send(batch);
     }
 }
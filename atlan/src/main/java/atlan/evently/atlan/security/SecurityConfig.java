@@ -32,6 +32,7 @@ public class SecurityConfig {
                 .securityMatcher(
                         "/api/v1/auth/**",
                         "/api/v1/users/register",
+                        "/api/v1/waiting-room/*/position", // authenticated by the signed queue token
                         "/swagger-ui.html",
                         "/swagger-ui/**",
                         "/v3/api-docs/**",
@@ -34,4 +34,13 @@ public class UserService {
     public User getById(Long id) {
         return users.findById(id).orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
+
+    public boolean exists(Long id) {
+        return users.existsById(id);
+    }
+
+    /** Unloaded reference (no query) for ids already known to exist, e.g. read back from a FK column. */
+    public User getReferenceById(Long id) {
+        return users.getReferenceById(id);
+    }
 }
@@ -0,0 +1,66 @@
+// src/main/java/atlan/evently/atlan/waitingroom/controller/WaitingRoomController.java
+package atlan.evently.atlan.waitingroom.controller;
+
+import atlan.evently.atlan.security.UserPrincipal;
+import atlan.evently.atlan.waitingroom.service.WaitingRoomService;
+import atlan.evently.atlan.waitingroom.web.dto.WaitingRoomResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/waiting-room")
+@Tag(name = "Waiting Room", description = "Queue tokens and admission for high-demand on-sales")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoom;
+
+    public WaitingRoomController(WaitingRoomService waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    @Operation(summary = "Join an event's waiting room (current user)",
+            description = "Returns a signed queue token. Joining again returns the same place in the queue.")
+    @SecurityRequirement(name = "bearerAuth")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ticket issued"),
+            @ApiResponse(responseCode = "404", description = "Event has no waiting room", content = @Content)
+    })
+    @PostMapping("/{eventId}/join")
+    public ResponseEntity<WaitingRoomResponse> join(@PathVariable Long eventId,
+                                                    @AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Login required");
+        }
+        return ResponseEntity.ok(waitingRoom.join(eventId, principal.getId()));
+    }
+
+    @Operation(summary = "Poll queue position",
+            description = "Cheap, DB-free status check authenticated by the queue token itself. Poll again after retryAfterSeconds; "
+                    + "once admitted, book with the same token in the X-Queue-Token header.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Current position"),
+            @ApiResponse(responseCode = "403", description = "Invalid queue token", content = @Content),
+            @ApiResponse(responseCode = "410", description = "Admission lapsed; join again", content = @Content)
+    })
+    @GetMapping("/{eventId}/position")
+    public ResponseEntity<WaitingRoomResponse> position(@PathVariable Long eventId,
+                                                        @RequestHeader("X-Queue-Token") String token) {
+        WaitingRoomResponse status = waitingRoom.status(eventId, token);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(CacheControl.noStore());
+        if (!status.isAdmitted()) {
+            ok.header(HttpHeaders.RETRY_AFTER, String.valueOf(status.getRetryAfterSeconds()));
+        }
+        return ok.body(status);
+    }
+}
@@ -0,0 +1,34 @@
+// src/main/java/atlan/evently/atlan/waitingroom/model/WaitingRoomState.java
+package atlan.evently.atlan.waitingroom.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Durable checkpoint of one event's waiting room: how many queue tokens were issued and how far
+ * admission has advanced. The live counters are in memory (WaitingRoomService); this row only lets
+ * a restart resume numbering and admission where it left off.
+ */
+@Entity
+@Table(name = "waiting_room_state")
+@Getter
+@Setter
+@NoArgsConstructor
+public class WaitingRoomState {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false)
+    private Long issued;
+
+    @Column(name = "admitted_upto", nullable = false)
+    private Long admittedUpTo;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+// src/main/java/atlan/evently/atlan/waitingroom/model/WaitingRoomTicket.java
+package atlan.evently.atlan.waitingroom.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Durable copy of one user's place in an event's waiting room (user -> sequence number), so a restart
+ * gives a rejoining user the place they had. Written in batches by the WaitingRoomService tick through
+ * WaitingRoomTicketRepository; mapped here only so the table is created with the schema.
+ */
+@Entity
+@Table(
+        name = "waiting_room_tickets",
+        indexes = {
+                @Index(name = "ix_waiting_room_tickets_event_seq", columnList = "event_id, seq")
+        }
+)
+@IdClass(WaitingRoomTicket.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class WaitingRoomTicket {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long eventId;
+        private Long userId;
+    }
+}
@@ -0,0 +1,8 @@
+// src/main/java/atlan/evently/atlan/waitingroom/repo/WaitingRoomStateRepository.java
+package atlan.evently.atlan.waitingroom.repo;
+
+import atlan.evently.atlan.waitingroom.model.WaitingRoomState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WaitingRoomStateRepository extends JpaRepository<WaitingRoomState, Long> {
+}
@@ -0,0 +1,54 @@
+// src/main/java/atlan/evently/atlan/waitingroom/repo/WaitingRoomTicketRepository.java
+package atlan.evently.atlan.waitingroom.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain-JDBC access to waiting_room_tickets: batched upserts from the checkpoint tick and the
+ * startup load of every live place.
+ */
+@Repository
+public class WaitingRoomTicketRepository {
+
+    /** One user's place in an event's waiting room. */
+    public record Place(Long eventId, Long userId, long seq) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public WaitingRoomTicketRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** One batched statement; a user who rejoined after a lapse gets the new sequence. */
+    public void upsertAll(List<Place> places) {
+        if (places.isEmpty()) return;
+        jdbc.batchUpdate("""
+                insert into waiting_room_tickets (event_id, user_id, seq)
+                values (:eventId, :userId, :seq)
+                on conflict (event_id, user_id) do update set seq = excluded.seq
+                """, places.stream()
+                .map(p -> new MapSqlParameterSource("eventId", p.eventId())
+                        .addValue("userId", p.userId())
+                        .addValue("seq", p.seq()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /** Places whose admission has lapsed can never be used again; range delete on ix_waiting_room_tickets_event_seq. */
+    public int deleteUpTo(Long eventId, long seq) {
+        return jdbc.update("delete from waiting_room_tickets where event_id = :eventId and seq <= :seq",
+                new MapSqlParameterSource("eventId", eventId).addValue("seq", seq));
+    }
+
+    public List<Place> findAll(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) return List.of();
+        return jdbc.query("""
+                select event_id, user_id, seq from waiting_room_tickets where event_id in (:ids)
+                """, new MapSqlParameterSource("ids", eventIds), (rs, i) -> new Place(
+                rs.getLong("event_id"), rs.getLong("user_id"), rs.getLong("seq")));
+    }
+}
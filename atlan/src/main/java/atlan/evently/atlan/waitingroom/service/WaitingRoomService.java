@@ -0,0 +1,283 @@
+// src/main/java/atlan/evently/atlan/waitingroom/service/WaitingRoomService.java
+package atlan.evently.atlan.waitingroom.service;
+
+import atlan.evently.atlan.common.web.RetryAfterException;
+import atlan.evently.atlan.waitingroom.model.WaitingRoomState;
+import atlan.evently.atlan.waitingroom.repo.WaitingRoomStateRepository;
+import atlan.evently.atlan.waitingroom.repo.WaitingRoomTicketRepository;
+import atlan.evently.atlan.waitingroom.repo.WaitingRoomTicketRepository.Place;
+import atlan.evently.atlan.waitingroom.web.dto.WaitingRoomResponse;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Virtual waiting room for high-demand on-sales (enabled per event via waiting-room.event-ids).
+ * - Joining hands out a signed queue token carrying (event, user, sequence number); the sequence is a
+ *   per-event in-memory counter, so joining and polling take no DB locks and polling takes no DB access.
+ * - A scheduler tick advances the event's admission cursor by waiting-room.admit-per-second; a token may
+ *   book once the cursor has passed its sequence number, and for waiting-room.admission-ttl-seconds
+ *   worth of later admissions after that (then it lapses and the user must rejoin).
+ * - Counters are checkpointed to waiting_room_state and new places (user -> sequence) to
+ *   waiting_room_tickets each tick, in batches; places whose admission has lapsed are deleted.
+ * - State is restored before the web server accepts requests, so a restart resumes numbering and
+ *   admission and a rejoining user keeps their place. Joins from the last tick before a crash are not
+ *   checkpointed yet: numbering resumes from the highest saved sequence and those users get a new place.
+ * State is per JVM: with several nodes, route each waiting-room event to one node.
+ */
+@Service
+public class WaitingRoomService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoomService.class);
+    private static final long MAX_POLL_SECONDS = 30;
+    private static final String TOKEN_TYPE = "queue";
+
+    private static final class Room {
+        final Long eventId;
+        final AtomicLong issued = new AtomicLong();
+        final Map<Long, Long> tickets = new ConcurrentHashMap<>(); // userId -> sequence
+        final Queue<Place> pending = new ConcurrentLinkedQueue<>(); // places not checkpointed yet
+        volatile long admittedUpTo;
+        volatile boolean dirty;
+        double credit; // fractional admissions carried between ticks (tick thread only)
+
+        Room(Long eventId) {
+            this.eventId = eventId;
+        }
+    }
+
+    private record Ticket(Long eventId, Long userId, long seq) {}
+
+    private final WaitingRoomStateRepository states;
+    private final WaitingRoomTicketRepository places;
+    private final Map<Long, Room> rooms;
+    private final double admitPerSecond;
+    private final long tickMs;
+    private final long admissionWindow;
+    private final long tokenTtlMs;
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public WaitingRoomService(WaitingRoomStateRepository states,
+                              WaitingRoomTicketRepository places,
+                              @Value("${waiting-room.event-ids:}") String eventIds,
+                              @Value("${waiting-room.admit-per-second:50}") double admitPerSecond,
+                              @Value("${waiting-room.tick-ms:1000}") long tickMs,
+                              @Value("${waiting-room.admission-ttl-seconds:300}") long admissionTtlSeconds,
+                              @Value("${waiting-room.token-ttl-minutes:240}") long tokenTtlMinutes,
+                              @Value("${waiting-room.secret:${security.jwt.secret}}") String base64Secret) {
+        this.states = states;
+        this.places = places;
+        this.rooms = Arrays.stream(eventIds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableMap(id -> id, Room::new));
+        this.admitPerSecond = admitPerSecond;
+        this.tickMs = tickMs;
+        this.admissionWindow = Math.max(1, (long) Math.ceil(admitPerSecond * admissionTtlSeconds));
+        this.tokenTtlMs = tokenTtlMinutes * 60_000;
+        this.key = Keys.hmacShaKeyFor(deriveKey(Base64.getDecoder().decode(base64Secret)));
+        this.parser = Jwts.parser().verifyWith(key).build();
+    }
+
+    public boolean isEnabled(Long eventId) {
+        return rooms.containsKey(eventId);
+    }
+
+    /** Join (or re-fetch the ticket for) an event's waiting room. */
+    public WaitingRoomResponse join(Long eventId, Long userId) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No waiting room for event");
+        }
+        // Keep a live place; a lapsed one is replaced by a new place at the back
+        long seq = room.tickets.compute(userId, (u, cur) -> {
+            if (cur != null && !lapsed(cur, room.admittedUpTo)) return cur;
+            long next = room.issued.incrementAndGet();
+            room.pending.add(new Place(eventId, userId, next));
+            room.dirty = true;
+            return next;
+        });
+        return view(room, new Ticket(eventId, userId, seq), sign(eventId, userId, seq));
+    }
+
+    /** Current position for a token; memory only. */
+    public WaitingRoomResponse status(Long eventId, String token) {
+        Ticket t = parse(token);
+        if (!t.eventId().equals(eventId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Queue token is for another event");
+        }
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No waiting room for event");
+        }
+        return view(room, t, token);
+    }
+
+    /**
+     * Booking gate: for waiting-room events the caller must present an admitted token for this user.
+     * Not yet admitted -> 429 with Retry-After; missing/foreign token -> 403; lapsed -> 410.
+     */
+    public void requireAdmitted(Long eventId, Long userId, String token) {
+        Room room = rooms.get(eventId);
+        if (room == null) return;
+        if (token == null || token.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Queue token required for this event");
+        }
+        Ticket t = parse(token);
+        if (!t.eventId().equals(eventId) || !t.userId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Queue token does not match booking");
+        }
+        long cursor = room.admittedUpTo;
+        if (t.seq() > cursor) {
+            throw new RetryAfterException("Not yet admitted from the waiting room", waitSeconds(t.seq() - cursor));
+        }
+        if (lapsed(t.seq(), cursor)) {
+            room.tickets.remove(userId, t.seq());
+            throw new ResponseStatusException(HttpStatus.GONE, "Queue admission lapsed; join again");
+        }
+    }
+
+    @Scheduled(fixedRateString = "${waiting-room.tick-ms:1000}")
+    void tick() {
+        if (rooms.isEmpty()) return;
+        List<WaitingRoomState> changed = new ArrayList<>();
+        List<Place> joined = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            for (Place p; (p = room.pending.poll()) != null; ) joined.add(p);
+            // Idle credit is capped at one second's worth, so a quiet period cannot bank a burst
+            room.credit = Math.min(room.credit + admitPerSecond * tickMs / 1000.0, Math.max(1, admitPerSecond));
+            long n = (long) room.credit;
+            long cursor = room.admittedUpTo;
+            long next = Math.min(cursor + n, room.issued.get());
+            if (next > cursor) {
+                room.credit -= next - cursor;
+                room.admittedUpTo = next;
+                room.dirty = true;
+            }
+            if (room.dirty) {
+                room.dirty = false;
+                changed.add(snapshot(room));
+            }
+        }
+        if (!changed.isEmpty()) {
+            try {
+                places.upsertAll(joined);
+                states.saveAll(changed);
+                for (WaitingRoomState s : changed) {
+                    long lapsedUpTo = s.getAdmittedUpTo() - admissionWindow;
+                    if (lapsedUpTo > 0) places.deleteUpTo(s.getEventId(), lapsedUpTo);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Waiting-room checkpoint failed; will retry next tick", ex);
+                joined.forEach(p -> rooms.get(p.eventId()).pending.add(p));
+                changed.forEach(s -> rooms.get(s.getEventId()).dirty = true);
+            }
+        }
+    }
+
+    /** Runs before the web server starts, so no join can be handed a sequence the restore then reissues. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (rooms.isEmpty()) return;
+        for (WaitingRoomState s : states.findAllById(rooms.keySet())) {
+            Room room = rooms.get(s.getEventId());
+            room.issued.set(s.getIssued());
+            room.admittedUpTo = s.getAdmittedUpTo();
+        }
+        for (Place p : places.findAll(rooms.keySet())) {
+            Room room = rooms.get(p.eventId());
+            room.issued.accumulateAndGet(p.seq(), Math::max);
+            if (!lapsed(p.seq(), room.admittedUpTo)) room.tickets.put(p.userId(), p.seq());
+        }
+    }
+
+    private WaitingRoomResponse view(Room room, Ticket t, String token) {
+        long cursor = room.admittedUpTo;
+        if (t.seq() <= cursor && lapsed(t.seq(), cursor)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Queue admission lapsed; join again");
+        }
+        long ahead = Math.max(0, t.seq() - cursor);
+        return new WaitingRoomResponse(room.eventId, token, ahead, ahead == 0, ahead == 0 ? 0 : waitSeconds(ahead));
+    }
+
+    private boolean lapsed(long seq, long cursor) {
+        return cursor - seq >= admissionWindow;
+    }
+
+    private long waitSeconds(long ahead) {
+        long s = admitPerSecond <= 0 ? MAX_POLL_SECONDS : (long) Math.ceil(ahead / admitPerSecond);
+        return Math.max(1, Math.min(MAX_POLL_SECONDS, s));
+    }
+
+    private WaitingRoomState snapshot(Room room) {
+        WaitingRoomState s = new WaitingRoomState();
+        s.setEventId(room.eventId);
+        s.setIssued(room.issued.get());
+        s.setAdmittedUpTo(room.admittedUpTo);
+        s.setUpdatedAt(OffsetDateTime.now());
+        return s;
+    }
+
+    private String sign(Long eventId, Long userId, long seq) {
+        Date now = new Date();
+        return Jwts.builder()
+                .claim("typ", TOKEN_TYPE)
+                .claim("evt", eventId)
+                .claim("uid", userId)
+                .claim("seq", seq)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + tokenTtlMs))
+                .signWith(key)
+                .compact();
+    }
+
+    private Ticket parse(String token) {
+        try {
+            Claims c = parser.parseSignedClaims(token).getPayload();
+            Long eventId = c.get("evt", Long.class);
+            Long userId = c.get("uid", Long.class);
+            Long seq = c.get("seq", Long.class);
+            if (TOKEN_TYPE.equals(c.get("typ", String.class)) && eventId != null && userId != null && seq != null) {
+                return new Ticket(eventId, userId, seq);
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            // fall through
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid or expired queue token");
+    }
+
+    // Purpose-bound key: HMAC-SHA256(secret, label), so sharing the auth secret does not share the signing key
+    private static byte[] deriveKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal("evently-waiting-room-queue-token".getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot derive waiting-room signing key", ex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// src/main/java/atlan/evently/atlan/waitingroom/web/dto/WaitingRoomResponse.java
+package atlan.evently.atlan.waitingroom.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Waiting-room ticket and current position for an event")
+public class WaitingRoomResponse {
+
+    @Schema(example = "77", description = "Event ID")
+    private Long eventId;
+
+    @Schema(description = "Signed queue token; send it as X-Queue-Token when polling and when booking")
+    private String token;
+
+    @Schema(example = "120", description = "Requests still ahead of this token (0 once admitted)")
+    private Long position;
+
+    @Schema(example = "false", description = "Whether the token may book now")
+    private boolean admitted;
+
+    @Schema(example = "6", description = "Suggested seconds before polling again (or before booking)")
+    private Long retryAfterSeconds;
+}
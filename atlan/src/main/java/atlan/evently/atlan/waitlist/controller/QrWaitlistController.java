@@ -1,6 +1,7 @@
 // src/main/java/atlan/evently/atlan/waitlist/controller/QrWaitlistController.java
 package atlan.evently.atlan.waitlist.controller;
 
+import atlan.evently.atlan.idempotency.Idempotent;
 import atlan.evently.atlan.waitlist.qr.QrCodeService;
 import atlan.evently.atlan.waitlist.service.WaitlistService;
 import atlan.evently.atlan.waitlist.service.WaitlistQueryService;
@@ -21,6 +22,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/waitlist/qr")
@@ -131,9 +133,10 @@ public class QrWaitlistController {
                     @ApiResponse(responseCode = "500", description = "Unexpected error")
             }
     )
+    @Idempotent
     @PostMapping("/join")
     public ResponseEntity<Void> join(@RequestParam Long eventId) {
-        waitlistService.enqueueForCurrentUser(eventId);
+        waitlistService.joinForCurrentUser(eventId);
         return ResponseEntity.noContent().build();
     }
 
@@ -178,4 +181,38 @@ public class QrWaitlistController {
     public ResponseEntity<QueueStatusResponse> myStatus(@RequestParam Long eventId) {
         return ResponseEntity.ok(waitlistQuery.myStatusForEvent(eventId));
     }
+
+    @Operation(
+            summary = "Stream my waitlist position (current user)",
+            description = "Server-Sent Events stream of the authenticated user's queue status. Sends the current position "
+                    + "immediately, then a `position` event each time the queue head advances, and a final `served` event "
+                    + "once the entry has left the queue (promoted or queue cleared). Replaces polling /status.",
+            parameters = {
+                    @Parameter(
+                            name = "eventId",
+                            description = "ID of the event to follow",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "77"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream opened",
+                            content = @Content(
+                                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = QueueStatusResponse.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized (missing/invalid token)"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden"),
+                    @ApiResponse(responseCode = "404", description = "Not on waitlist for this event"),
+                    @ApiResponse(responseCode = "500", description = "Unexpected error")
+            }
+    )
+    @GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter myStatusStream(@RequestParam Long eventId) {
+        return waitlistQuery.streamForEvent(eventId);
+    }
 }
@@ -0,0 +1,38 @@
+// src/main/java/atlan/evently/atlan/waitlist/model/WaitlistCounter.java
+package atlan.evently.atlan.waitlist.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-event waitlist counters, so a position is arithmetic instead of a count over the queue:
+ * - issued: last ticket handed out (tickets are 1, 2, 3, ... per event, in join order, without gaps:
+ *   it only advances together with a successful insert, see WaitlistTicketRepository#join);
+ * - served_upto: every ticket up to this one has left the queue;
+ * - live_count: entries currently waiting.
+ * A waiting entry's position is ticket - served_upto. Entries only leave at the head (promotion)
+ * or all at once (event cancelled), which keeps that exact.
+ * Written only by the conditional statements in WaitlistTicketRepository.
+ */
+@Entity
+@Table(name = "waitlist_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+public class WaitlistCounter {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long issued;
+
+    @Column(name = "served_upto", nullable = false, insertable = false, updatable = false)
+    private Long servedUpTo;
+
+    @Column(name = "live_count", nullable = false, insertable = false, updatable = false)
+    private Long liveCount;
+}
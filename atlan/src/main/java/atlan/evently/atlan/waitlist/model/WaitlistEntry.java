@@ -17,7 +17,8 @@ import lombok.Setter;
         },
         indexes = {
                 @Index(name = "ix_waitlist_event_enqueued", columnList = "event_id,enqueued_at"),
-                @Index(name = "ix_waitlist_user", columnList = "user_id")
+                @Index(name = "ix_waitlist_user", columnList = "user_id"),
+                @Index(name = "ux_waitlist_event_ticket", columnList = "event_id,ticket", unique = true)
         }
 )
 @Getter
@@ -37,6 +38,10 @@ public class WaitlistEntry {
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_waitlist_user"))
     private User user;
 
+    // Per-event join order (see WaitlistCounter); position = ticket - served_upto
+    @Column(name = "ticket", updatable = false)
+    private Long ticket;
+
     @Column(name = "enqueued_at", nullable = false, updatable = false)
     private OffsetDateTime enqueuedAt = OffsetDateTime.now();
 }
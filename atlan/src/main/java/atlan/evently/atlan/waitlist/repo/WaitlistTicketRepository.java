@@ -0,0 +1,218 @@
+// src/main/java/atlan/evently/atlan/waitlist/repo/WaitlistTicketRepository.java
+package atlan.evently.atlan.waitlist.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC waitlist statements: the single-statement join with ticket numbering and counters
+ * (table waitlist_counters, see WaitlistCounter), and the batched promotion claim.
+ * Single statements on the caller's connection/transaction, so a rolled-back join or promotion
+ * also rolls back its counter change.
+ */
+@Repository
+public class WaitlistTicketRepository {
+
+    /** A head-of-queue entry claimed for promotion. */
+    public record Claimed(Long id, Long userId, long ticket, String email) {}
+
+    /** One user's waitlist entry with everything a status response needs. */
+    public record Status(long ticket, OffsetDateTime enqueuedAt, String eventName, long servedUpTo, long liveCount) {
+        public Status withCounters(Counters c) {
+            return new Status(ticket, enqueuedAt, eventName, c.servedUpTo(), c.liveCount());
+        }
+    }
+
+    /** The caller's entry after a join; {@code created} is false when the user was already queued. */
+    public record Joined(Long id, Long ticket, OffsetDateTime enqueuedAt, boolean created) {}
+
+    private record Row(boolean eventExists, boolean counterMissing, Joined entry) {}
+
+    /** An event's queue head and length. */
+    public record Counters(long servedUpTo, long liveCount) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public WaitlistTicketRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Join an event's queue in one round trip: the event check, the existing-entry probe on
+     * uq_waitlist_event_user, ticket issue and the INSERT ... ON CONFLICT DO NOTHING RETURNING run as one
+     * statement, so the cost does not depend on how many waitlists the user is on.
+     * The counters row is locked before the insert and {@code issued} only advances when the insert
+     * succeeded, so tickets have no gaps and positions stay exact: a concurrent join of the same user
+     * waits on the counters row, then loses the insert and gets the winner's entry without using up a
+     * ticket. The event's first join creates its counters row and runs again.
+     * Empty when the event does not exist or is cancelled.
+     */
+    public Optional<Joined> join(Long eventId, Long userId, OffsetDateTime now) {
+        var params = new MapSqlParameterSource("eventId", eventId)
+                .addValue("userId", userId)
+                .addValue("now", now);
+        Row r = joinOnce(params);
+        if (r.counterMissing()) {
+            jdbc.update("""
+                    insert into waitlist_counters (event_id, issued, served_upto, live_count)
+                    values (:eventId, 0, 0, 0)
+                    on conflict (event_id) do nothing
+                    """, params);
+            r = joinOnce(params);
+        }
+        if (!r.eventExists()) return Optional.empty();
+        if (r.entry() != null) return Optional.of(r.entry());
+
+        // Lost the insert to a concurrent join of the same user: return the winner's entry
+        return Optional.of(jdbc.queryForObject("""
+                select id, ticket, enqueued_at from waitlist where event_id = :eventId and user_id = :userId
+                """, params, (rs, i) -> new Joined(
+                rs.getLong("id"),
+                rs.getObject("ticket", Long.class),
+                rs.getObject("enqueued_at", OffsetDateTime.class),
+                false)));
+    }
+
+    private Row joinOnce(MapSqlParameterSource params) {
+        return jdbc.queryForObject("""
+                with ev as (
+                  select id from events where id = :eventId and canceled_at is null
+                ), existing as (
+                  select id, ticket, enqueued_at from waitlist where event_id = :eventId and user_id = :userId
+                ), ctr as (
+                  select c.issued from waitlist_counters c
+                  where c.event_id in (select id from ev) and not exists (select 1 from existing)
+                  for update
+                ), ins as (
+                  insert into waitlist (event_id, user_id, ticket, enqueued_at)
+                  select :eventId, :userId, issued + 1, :now from ctr
+                  on conflict (event_id, user_id) do nothing
+                  returning id, ticket, enqueued_at
+                ), bump as (
+                  update waitlist_counters
+                  set issued = issued + 1,
+                      live_count = live_count + 1
+                  where event_id = :eventId and exists (select 1 from ins)
+                ), entry as (
+                  select id, ticket, enqueued_at, true as created from ins
+                  union all
+                  select id, ticket, enqueued_at, false from existing
+                )
+                select exists (select 1 from ev) as event_exists,
+                       exists (select 1 from ev) and not exists (select 1 from existing)
+                         and not exists (select 1 from ctr) as counter_missing,
+                       e.id, e.ticket, e.enqueued_at, e.created
+                from (select 1) one
+                left join entry e on true
+                """, params, (rs, i) -> new Row(
+                rs.getBoolean("event_exists"),
+                rs.getBoolean("counter_missing"),
+                rs.getObject("id") == null ? null : new Joined(
+                        rs.getLong("id"),
+                        rs.getObject("ticket", Long.class),
+                        rs.getObject("enqueued_at", OffsetDateTime.class),
+                        rs.getBoolean("created"))));
+    }
+
+    /**
+     * Lock the next {@code limit} entries in ticket order. The caller already holds the event row lock,
+     * so promotion of one event is serialized and no other promoter can hold these rows.
+     */
+    public List<Claimed> claimHead(Long eventId, int limit) {
+        var params = new MapSqlParameterSource("eventId", eventId).addValue("limit", limit);
+        return jdbc.query("""
+                select w.id, w.user_id, w.ticket, u.email
+                from waitlist w
+                join users u on u.id = w.user_id
+                where w.event_id = :eventId
+                order by w.ticket
+                limit :limit
+                for update of w
+                """, params, (rs, i) -> new Claimed(
+                rs.getLong("id"), rs.getLong("user_id"), rs.getLong("ticket"), rs.getString("email")));
+    }
+
+    /** One DELETE for a promoted/dropped batch. */
+    public int deleteEntries(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        return jdbc.update("delete from waitlist where id in (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * {@code n} entries left the queue: served_upto moves to just below the lowest ticket still waiting
+     * (one index probe on ux_waitlist_event_ticket), or to issued when the queue is empty.
+     */
+    public int markRemoved(Long eventId, int n) {
+        return jdbc.update("""
+                update waitlist_counters
+                set live_count = greatest(live_count - :n, 0),
+                    served_upto = greatest(served_upto,
+                        coalesce((select min(w.ticket) - 1 from waitlist w where w.event_id = :eventId), issued))
+                where event_id = :eventId
+                """, new MapSqlParameterSource("eventId", eventId).addValue("n", n));
+    }
+
+    /** Whole queue cleared: everything issued so far counts as served. */
+    public int markAllServed(Long eventId) {
+        return jdbc.update("""
+                update waitlist_counters
+                set served_upto = issued, live_count = 0
+                where event_id = :eventId
+                """, new MapSqlParameterSource("eventId", eventId));
+    }
+
+    /** Point lookup via uq_waitlist_event_user plus the two primary keys; cost does not depend on queue length. */
+    public Optional<Status> findStatus(Long eventId, Long userId) {
+        var params = new MapSqlParameterSource("eventId", eventId).addValue("userId", userId);
+        return jdbc.query("""
+                select w.ticket, w.enqueued_at, e.name, c.served_upto, c.live_count
+                from waitlist w
+                join events e on e.id = w.event_id
+                join waitlist_counters c on c.event_id = w.event_id
+                where w.event_id = :eventId and w.user_id = :userId and w.ticket is not null
+                """, params, (rs, i) -> new Status(
+                rs.getLong("ticket"),
+                rs.getObject("enqueued_at", OffsetDateTime.class),
+                rs.getString("name"),
+                rs.getLong("served_upto"),
+                rs.getLong("live_count"))).stream().findFirst();
+    }
+
+    /** Counters of several events in one primary-key lookup; events without a queue are absent. */
+    public Map<Long, Counters> findCounters(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) return Map.of();
+        Map<Long, Counters> out = new HashMap<>();
+        jdbc.query("""
+                select event_id, served_upto, live_count
+                from waitlist_counters
+                where event_id in (:ids)
+                """, new MapSqlParameterSource("ids", eventIds), rs -> {
+            out.put(rs.getLong("event_id"), new Counters(rs.getLong("served_upto"), rs.getLong("live_count")));
+        });
+        return out;
+    }
+
+    /**
+     * Events with a free seat and someone still queued: promotion runs that failed or were lost with
+     * their node. Checks the waitlist rows themselves rather than live_count.
+     */
+    public List<Long> findPromotable(int limit) {
+        return jdbc.queryForList("""
+                select e.id
+                from events e
+                where e.canceled_at is null
+                  and e.confirmed_count + e.held_count < e.capacity
+                  and exists (select 1 from waitlist w where w.event_id = e.id)
+                order by e.id
+                limit :limit
+                """, new MapSqlParameterSource("limit", limit), Long.class);
+    }
+}
@@ -0,0 +1,280 @@
+// src/main/java/atlan/evently/atlan/waitlist/service/WaitlistBroadcaster.java
+package atlan.evently.atlan.waitlist.service;
+
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory fan-out of live waitlist positions over Server-Sent Events, one channel per event.
+ * - A subscriber's ticket is looked up once on subscribe; after that a position is pure arithmetic on
+ *   the event's counters, so one counters read serves every subscriber of the event.
+ * - Pushes happen only when the queue head advances (served_upto grows): right after a promotion or
+ *   queue clear on this node commits, and via a periodic sweep (one query for all subscribed events)
+ *   that picks up advances made by other nodes.
+ * - A subscriber whose ticket has been served gets a final "served" event and the stream completes.
+ * - Counters are read on one publisher thread; frames, the first one included, are written by a small
+ *   pool of sender threads, never by a promoter or request thread.
+ * - Each subscriber has a one-frame outbox: a newer position replaces one not yet written, and only one
+ *   sender works on a subscriber at a time. A slow client therefore holds up at most one sender and only
+ *   its own frames. A subscriber whose write has been blocked longer than waitlist.stream.send-timeout-ms
+ *   is dropped at the next heartbeat.
+ * Metric: waitlist.stream.subscribers.
+ */
+@Component
+public class WaitlistBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistBroadcaster.class);
+
+    private record Frame(SseEmitter.SseEventBuilder event, boolean last) {}
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final WaitlistTicketRepository.Status entry;
+        final AtomicReference<Frame> outbox = new AtomicReference<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long sendingSince; // System.nanoTime() of the write in progress, 0 when idle
+        volatile boolean closed;
+        volatile Exception timedOut;
+
+        Subscriber(SseEmitter emitter, WaitlistTicketRepository.Status entry) {
+            this.emitter = emitter;
+            this.entry = entry;
+        }
+    }
+
+    private static final class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final AtomicLong servedUpTo = new AtomicLong(-1);
+    }
+
+    private final WaitlistTicketRepository tickets;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService publisher;
+    private final ExecutorService senders;
+
+    public WaitlistBroadcaster(WaitlistTicketRepository tickets,
+                               MeterRegistry meters,
+                               @Value("${waitlist.stream.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${waitlist.stream.senders:4}") int senderThreads,
+                               @Value("${waitlist.stream.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.tickets = tickets;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.publisher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "waitlist-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger seq = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), r -> {
+            Thread t = new Thread(r, "waitlist-stream-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("waitlist.stream.subscribers", channels,
+                        c -> c.values().stream().mapToInt(ch -> ch.subscribers.size()).sum())
+                .description("Open waitlist position streams")
+                .register(meters);
+    }
+
+    /** Open a stream for one waitlist entry; the first frame is the entry's current position. */
+    public SseEmitter subscribe(Long eventId, WaitlistTicketRepository.Status entry) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber s = new Subscriber(emitter, entry);
+        channels.compute(eventId, (id, ch) -> {
+            if (ch == null) ch = new Channel();
+            ch.subscribers.add(s);
+            ch.servedUpTo.accumulateAndGet(entry.servedUpTo(), Math::max);
+            return ch;
+        });
+        emitter.onCompletion(() -> unsubscribe(eventId, s));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> unsubscribe(eventId, s));
+        // Written by a sender like every other frame; a head advance queued meanwhile is newer and wins
+        s.outbox.compareAndSet(null, frame(eventId, entry));
+        schedule(eventId, s);
+        return emitter;
+    }
+
+    /** The event's queue head may advance once the current transaction commits (immediately if there is none). */
+    public void headAdvancedAfterCommit(Long eventId) {
+        if (!channels.containsKey(eventId)) return; // nobody on this node is listening
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trigger(eventId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                trigger(eventId);
+            }
+        });
+    }
+
+    /** Catches head advances committed by other nodes; one counters query for every subscribed event. */
+    @Scheduled(fixedDelayString = "${waitlist.stream.sweep-ms:5000}")
+    void sweep() {
+        if (channels.isEmpty()) return;
+        try {
+            Map<Long, WaitlistTicketRepository.Counters> counters = tickets.findCounters(List.copyOf(channels.keySet()));
+            publisher.execute(() -> counters.forEach(this::push));
+        } catch (RuntimeException ex) {
+            log.warn("Waitlist stream sweep failed; will retry next run", ex);
+        }
+    }
+
+    /**
+     * Comment frames keep proxies from closing idle streams and flush out disconnected clients.
+     * Also drops subscribers whose current write has been blocked longer than the send timeout.
+     */
+    @Scheduled(fixedRateString = "${waitlist.stream.heartbeat-ms:15000}")
+    void heartbeat() {
+        if (channels.isEmpty()) return;
+        long now = System.nanoTime();
+        channels.forEach((eventId, ch) -> ch.subscribers.forEach(s -> {
+            long since = s.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                timeOut(eventId, s);
+                return;
+            }
+            // Never displaces a position that is still waiting to be written
+            if (s.outbox.compareAndSet(null, new Frame(SseEmitter.event().comment("keepalive"), false))) {
+                schedule(eventId, s);
+            }
+        }));
+    }
+
+    private void trigger(Long eventId) {
+        if (!queued.add(eventId)) return; // a publish for this event is already waiting
+        try {
+            publisher.execute(() -> {
+                queued.remove(eventId);
+                try {
+                    WaitlistTicketRepository.Counters c = tickets.findCounters(List.of(eventId)).get(eventId);
+                    if (c != null) push(eventId, c);
+                } catch (RuntimeException ex) {
+                    log.warn("Waitlist stream publish for event {} failed; the sweep retries it", eventId, ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            queued.remove(eventId); // shutting down
+        }
+    }
+
+    // Publisher thread only; queues the frames, the senders write them
+    private void push(Long eventId, WaitlistTicketRepository.Counters c) {
+        Channel ch = channels.get(eventId);
+        if (ch == null) return;
+        long before = ch.servedUpTo.getAndAccumulate(c.servedUpTo(), Math::max);
+        if (c.servedUpTo() <= before) return; // head has not moved
+        for (Subscriber s : ch.subscribers) {
+            s.outbox.set(frame(eventId, s.entry.withCounters(c)));
+            schedule(eventId, s);
+        }
+    }
+
+    private static Frame frame(Long eventId, WaitlistTicketRepository.Status st) {
+        if (st.ticket() <= st.servedUpTo()) {
+            // Promoted to a booking or removed with the queue; nothing more to report
+            return new Frame(SseEmitter.event().name("served").data(Map.of("eventId", eventId)), true);
+        }
+        return new Frame(SseEmitter.event().name("position").data(WaitlistQueryService.toResponse(eventId, st)), false);
+    }
+
+    private void schedule(Long eventId, Subscriber s) {
+        if (s.closed || !s.draining.compareAndSet(false, true)) return; // a sender already owns this subscriber
+        try {
+            senders.execute(() -> drain(eventId, s));
+        } catch (RejectedExecutionException ex) {
+            s.draining.set(false); // shutting down
+        }
+    }
+
+    // Sender thread; writes the subscriber's outbox until it stays empty
+    private void drain(Long eventId, Subscriber s) {
+        try {
+            Frame f;
+            while (!s.closed && (f = s.outbox.getAndSet(null)) != null) {
+                s.sendingSince = System.nanoTime();
+                try {
+                    s.emitter.send(f.event());
+                    if (f.last()) {
+                        unsubscribe(eventId, s);
+                        s.emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    drop(eventId, s, ex);
+                } finally {
+                    s.sendingSince = 0;
+                }
+            }
+        } finally {
+            s.draining.set(false);
+        }
+        if (s.timedOut != null) {
+            s.emitter.completeWithError(s.timedOut);
+            return;
+        }
+        // A frame queued between the last poll and the release above would otherwise wait for the next push
+        if (s.outbox.get() != null) schedule(eventId, s);
+    }
+
+    /**
+     * Give up on a subscriber whose write is stuck. The emitter cannot be completed while the sender is
+     * inside send() (both take the emitter's lock), so the sender completes it once the write returns or
+     * fails; this thread only completes it if the sender has already let go.
+     */
+    private void timeOut(Long eventId, Subscriber s) {
+        s.timedOut = new IOException("Waitlist stream write timed out");
+        unsubscribe(eventId, s);
+        if (s.draining.compareAndSet(false, true)) {
+            s.emitter.completeWithError(s.timedOut);
+        }
+    }
+
+    private void drop(Long eventId, Subscriber s, Exception ex) {
+        unsubscribe(eventId, s);
+        s.emitter.completeWithError(ex);
+    }
+
+    private void unsubscribe(Long eventId, Subscriber s) {
+        s.closed = true;
+        channels.computeIfPresent(eventId, (id, ch) -> {
+            ch.subscribers.remove(s);
+            return ch.subscribers.isEmpty() ? null : ch;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdown();
+        senders.shutdown();
+    }
+}
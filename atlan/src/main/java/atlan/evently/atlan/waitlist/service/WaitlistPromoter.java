@@ -0,0 +1,120 @@
+// src/main/java/atlan/evently/atlan/waitlist/service/WaitlistPromoter.java
+package atlan.evently.atlan.waitlist.service;
+
+import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background waitlist promotion, triggered whenever seats may have been freed (cancellation, hold
+ * release/expiry, capacity increase).
+ * - Triggers fire after the freeing transaction commits, so the promoter sees the freed seats and the
+ *   request thread does no promotion work.
+ * - Triggers are coalesced per event: while a run for an event is queued, further triggers for it are
+ *   absorbed; one run fills every free seat (WaitlistService#promoteAvailable).
+ * - A trigger that arrives while a run is in progress queues exactly one more run, so seats freed
+ *   mid-run are not missed.
+ * - A periodic sweep triggers every event that has free seats and a non-empty queue, so a failed run
+ *   (or one lost with its node) is retried without waiting for the next seat release.
+ * Metric: waitlist.promoted.
+ */
+@Component
+public class WaitlistPromoter {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromoter.class);
+
+    private final WaitlistService waitlist;
+    private final WaitlistTicketRepository tickets;
+    private final int maxPerRun;
+    private final int sweepLimit;
+    private final ExecutorService workers;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter promoted;
+
+    public WaitlistPromoter(WaitlistService waitlist,
+                            WaitlistTicketRepository tickets,
+                            MeterRegistry meters,
+                            @Value("${waitlist.promotion.workers:2}") int workers,
+                            @Value("${waitlist.promotion.max-per-run:500}") int maxPerRun,
+                            @Value("${waitlist.promotion.sweep-limit:1000}") int sweepLimit) {
+        this.waitlist = waitlist;
+        this.tickets = tickets;
+        this.maxPerRun = Math.max(1, maxPerRun);
+        this.sweepLimit = Math.max(1, sweepLimit);
+        AtomicInteger seq = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workers), r -> {
+            Thread t = new Thread(r, "waitlist-promoter-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.promoted = Counter.builder("waitlist.promoted")
+                .description("Waitlist entries promoted to bookings")
+                .register(meters);
+    }
+
+    /** Seats of the event may be free once the current transaction commits (immediately if there is none). */
+    public void seatsFreedAfterCommit(Long eventId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trigger(eventId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                trigger(eventId);
+            }
+        });
+    }
+
+    /** Backstop for runs that failed or never happened; triggers are coalesced like any other. */
+    @Scheduled(fixedDelayString = "${waitlist.promotion.sweep-ms:30000}")
+    void sweep() {
+        try {
+            tickets.findPromotable(sweepLimit).forEach(this::trigger);
+        } catch (RuntimeException ex) {
+            log.warn("Waitlist promotion sweep failed; will retry next run", ex);
+        }
+    }
+
+    void trigger(Long eventId) {
+        if (!queued.add(eventId)) return; // a run for this event is already waiting
+        try {
+            workers.execute(() -> run(eventId));
+        } catch (RejectedExecutionException ex) {
+            queued.remove(eventId); // shutting down
+        }
+    }
+
+    private void run(Long eventId) {
+        queued.remove(eventId); // from here on, new triggers queue a follow-up run
+        try {
+            List<Booking> done = waitlist.promoteAvailable(eventId, maxPerRun);
+            promoted.increment(done.size());
+            if (done.size() == maxPerRun) trigger(eventId); // more seats may be left; yield to other events first
+        } catch (RuntimeException ex) {
+            log.warn("Waitlist promotion for event {} failed; the sweep retries it", eventId, ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -3,25 +3,28 @@ package atlan.evently.atlan.waitlist.service;
 
 import atlan.evently.atlan.user.model.User;
 import atlan.evently.atlan.user.service.UserService;
-import atlan.evently.atlan.waitlist.model.WaitlistEntry;
-import atlan.evently.atlan.waitlist.repo.WaitlistRepository;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
 import atlan.evently.atlan.waitlist.web.dto.QueueStatusResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Optional;
 
 @Service
 public class WaitlistQueryService {
-    private final WaitlistRepository waitlistRepo;
+    private final WaitlistTicketRepository tickets;
     private final UserService users;
+    private final WaitlistBroadcaster broadcaster;
 
-    public WaitlistQueryService(WaitlistRepository waitlistRepo, UserService users) {
-        this.waitlistRepo = waitlistRepo;
+    public WaitlistQueryService(WaitlistTicketRepository tickets, UserService users, WaitlistBroadcaster broadcaster) {
+        this.tickets = tickets;
         this.users = users;
+        this.broadcaster = broadcaster;
     }
 
     private User currentUserOrThrow() {
@@ -32,26 +35,41 @@ public class WaitlistQueryService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found for principal"));
     }
 
+    /**
+     * Position and total are arithmetic on the entry's ticket and the event's counters (one point lookup),
+     * so a poll costs the same for a 10-deep and a 100k-deep queue.
+     */
+    @Transactional(readOnly = true)
     public QueueStatusResponse myStatusForEvent(Long eventId) {
+        return toResponse(eventId, myEntry(eventId));
+    }
+
+    /**
+     * Live position stream: one lookup for the caller's entry, then every push comes from the event's
+     * shared broadcaster, which reads the counters once per head advance for all subscribers.
+     */
+    public SseEmitter streamForEvent(Long eventId) {
+        return broadcaster.subscribe(eventId, myEntry(eventId));
+    }
+
+    private WaitlistTicketRepository.Status myEntry(Long eventId) {
         var u = currentUserOrThrow();
-        // find user’s entry for this event, earliest first
-        var entries = waitlistRepo.findByUserIdFetchEventOrderByEnqueued(u.getId());
-        var opt = entries.stream().filter(w -> w.getEvent().getId().equals(eventId)).findFirst();
-        if (opt.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not on waitlist for this event");
-        }
-        WaitlistEntry w = opt.get();
-        long ahead = waitlistRepo.countAhead(eventId, w.getEnqueuedAt(), w.getId());
-        long total = waitlistRepo.countByEvent_Id(eventId);
+        return tickets.findStatus(eventId, u.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not on waitlist for this event"));
+    }
+
+    static QueueStatusResponse toResponse(Long eventId, WaitlistTicketRepository.Status st) {
+        long total = Math.max(1, st.liveCount());
+        long position = Math.min(total, Math.max(1, st.ticket() - st.servedUpTo()));
 
         var dto = new QueueStatusResponse();
         dto.setEventId(eventId);
-        dto.setEventName(w.getEvent().getName());
-        dto.setPosition((int) (ahead + 1));
+        dto.setEventName(st.eventName());
+        dto.setPosition((int) position);
         dto.setTotal((int) total);
-        dto.setEnqueuedAt(w.getEnqueuedAt());
+        dto.setEnqueuedAt(st.enqueuedAt());
         // naive estimate: 2 minutes per promotion; tune later
-        dto.setEstimatedMinutes((int) Math.max(0, (total - (ahead + 1)) * 2));
+        dto.setEstimatedMinutes((int) Math.max(0, (total - position) * 2));
         return dto;
     }
 }
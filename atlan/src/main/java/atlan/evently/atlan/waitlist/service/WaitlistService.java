@@ -2,7 +2,7 @@
 package atlan.evently.atlan.waitlist.service;
 
 import atlan.evently.atlan.booking.model.Booking;
-import atlan.evently.atlan.booking.repo.BookingRepository;
+import atlan.evently.atlan.booking.repo.BookingBatchRepository;
 import atlan.evently.atlan.event.model.Event;
 import atlan.evently.atlan.event.repo.EventRepository;
 import atlan.evently.atlan.notification.EmailNotificationService;
@@ -10,16 +10,22 @@ import atlan.evently.atlan.user.model.User;
 import atlan.evently.atlan.user.service.UserService;
 import atlan.evently.atlan.waitlist.model.WaitlistEntry;
 import atlan.evently.atlan.waitlist.repo.WaitlistRepository;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
 import atlan.evently.atlan.waitlist.web.dto.WaitlistItemResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
@@ -27,21 +33,30 @@ import java.util.stream.IntStream;
 public class WaitlistService {
 
     private final WaitlistRepository waitlistRepo;
+    private final WaitlistTicketRepository tickets;
     private final EventRepository eventRepo;
-    private final BookingRepository bookingRepo;
+    private final BookingBatchRepository bookingBatch;
     private final UserService users;
     private final EmailNotificationService email;
+    private final WaitlistBroadcaster broadcaster;
+    private final int batchSize;
 
     public WaitlistService(WaitlistRepository waitlistRepo,
+                           WaitlistTicketRepository tickets,
                            EventRepository eventRepo,
-                           BookingRepository bookingRepo,
+                           BookingBatchRepository bookingBatch,
                            UserService users,
-                           EmailNotificationService email) {
+                           EmailNotificationService email,
+                           WaitlistBroadcaster broadcaster,
+                           @Value("${waitlist.promotion.batch-size:100}") int batchSize) {
         this.waitlistRepo = waitlistRepo;
+        this.tickets = tickets;
         this.eventRepo = eventRepo;
-        this.bookingRepo = bookingRepo;
+        this.bookingBatch = bookingBatch;
         this.users = users;
         this.email = email;
+        this.broadcaster = broadcaster;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     private User currentUserOrThrow() {
@@ -53,27 +68,32 @@ public class WaitlistService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found for principal"));
     }
 
+    /**
+     * Put the current user on the event's waitlist, or return their existing entry; one statement
+     * (see WaitlistTicketRepository#join), independent of how many waitlists the user is on.
+     */
+    @Transactional
+    public WaitlistTicketRepository.Joined joinForCurrentUser(Long eventId) {
+        return join(eventId, currentUserOrThrow());
+    }
+
+    /** Same as joinForCurrentUser, returning the entry with its event for the JSON join endpoint. */
     @Transactional
     public WaitlistEntry enqueueForCurrentUser(Long eventId) {
-        Event e = eventRepo.findById(eventId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
         User u = currentUserOrThrow();
-
-        if (waitlistRepo.existsByEvent_IdAndUser_Id(eventId, u.getId())) {
-            return waitlistRepo.findByUser_IdOrderByEnqueuedAtAsc(u.getId()).stream()
-                    .filter(w -> w.getEvent().getId().equals(eventId))
-                    .findFirst()
-                    .orElseGet(() -> {
-                        WaitlistEntry w = new WaitlistEntry();
-                        w.setEvent(e);
-                        w.setUser(u);
-                        return waitlistRepo.save(w);
-                    });
-        }
+        WaitlistTicketRepository.Joined j = join(eventId, u);
         WaitlistEntry w = new WaitlistEntry();
-        w.setEvent(e);
+        w.setId(j.id());
+        w.setEvent(eventRepo.findById(eventId).orElseThrow());
         w.setUser(u);
-        return waitlistRepo.save(w);
+        w.setTicket(j.ticket());
+        w.setEnqueuedAt(j.enqueuedAt());
+        return w;
+    }
+
+    private WaitlistTicketRepository.Joined join(Long eventId, User u) {
+        return tickets.join(eventId, u.getId(), OffsetDateTime.now())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
     }
 
     // NEW: Return DTOs to avoid lazy serialization issues
@@ -96,35 +116,66 @@ public class WaitlistService {
                 .toList();
     }
 
+    /**
+     * Fill up to {@code max} free seats from the head of the event's waitlist in one transaction, a batch at a time:
+     * - lock the event row first, then claim at most its free seats from the head in ticket order;
+     *   event row before waitlist rows is the same order the bulk cancel uses, so the two cannot deadlock.
+     *   The event lock serializes promotion per event (runs for different events proceed in parallel on
+     *   the promoter's workers), which the seat counter update would force anyway;
+     * - insert every winner's booking in one statement and add them to the counter in one UPDATE;
+     *   winners who already hold a booking are skipped by the unique index;
+     * - remove all winners' entries in one DELETE.
+     * Runs on the WaitlistPromoter's workers, never on a request thread. Promotion emails go out
+     * after commit, in one batch.
+     */
     @Transactional
-    public Optional<Booking> promoteNextIfAvailable(Long eventId) {
-        Event e = eventRepo.findByIdForUpdate(eventId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
-
-        long confirmedCount = bookingRepo.countByEvent_IdAndStatus(e.getId(), Booking.Status.CONFIRMED);
-        if (confirmedCount >= e.getCapacity()) return Optional.empty();
-
-        Optional<WaitlistEntry> nextOpt = waitlistRepo.findTopByEvent_IdOrderByEnqueuedAtAscIdAsc(eventId);
-        if (nextOpt.isEmpty()) return Optional.empty();
-
-        WaitlistEntry next = nextOpt.get();
-        User u = next.getUser();
-
-        boolean hasActive = bookingRepo.findByUser_IdAndEvent_IdAndStatus(u.getId(), e.getId(), Booking.Status.CONFIRMED).isPresent();
-        if (hasActive) {
-            waitlistRepo.delete(next);
-            return promoteNextIfAvailable(eventId);
+    public List<Booking> promoteAvailable(Long eventId, int max) {
+        Optional<Event> event = eventRepo.findById(eventId);
+        if (event.isEmpty()) return List.of();
+        Event e = event.get();
+
+        List<Booking> promoted = new ArrayList<>();
+        List<EmailNotificationService.WaitlistPromotion> notices = new ArrayList<>();
+        int budget = Math.min(max, e.freeSeats());
+        while (budget > 0) {
+            int free = eventRepo.lockFreeSeats(eventId).orElse(0);
+            if (free == 0) break;
+            List<WaitlistTicketRepository.Claimed> winners =
+                    tickets.claimHead(eventId, Math.min(Math.min(budget, free), batchSize));
+            if (winners.isEmpty()) break;
+            OffsetDateTime now = OffsetDateTime.now();
+            Map<Long, Long> ids = bookingBatch.insertForUsers(eventId,
+                    winners.stream().map(WaitlistTicketRepository.Claimed::userId).toList(), now);
+            if (!ids.isEmpty()) eventRepo.addConfirmed(eventId, ids.size());
+
+            for (WaitlistTicketRepository.Claimed c : winners) {
+                Long bookingId = ids.get(c.userId());
+                if (bookingId == null) continue; // already booked; the entry is simply dropped
+                Booking b = new Booking();
+                b.setId(bookingId);
+                b.setUser(users.getReferenceById(c.userId()));
+                b.setEvent(e);
+                b.setStatus(Booking.Status.CONFIRMED);
+                b.setBookedAt(now);
+                promoted.add(b);
+                notices.add(new EmailNotificationService.WaitlistPromotion(c.email(), bookingId));
+            }
+            tickets.deleteEntries(winners.stream().map(WaitlistTicketRepository.Claimed::id).toList());
+            tickets.markRemoved(eventId, winners.size());
+            broadcaster.headAdvancedAfterCommit(eventId);
+
+            budget = Math.min(budget, free) - ids.size();
         }
-
-        Booking b = new Booking();
-        b.setUser(u);
-        b.setEvent(e);
-        b.setStatus(Booking.Status.CONFIRMED);
-        b.setBookedAt(OffsetDateTime.now());
-        Booking saved = bookingRepo.save(b);
-
-        waitlistRepo.delete(next);
-        email.sendWaitlistPromotion(u, e, saved);
-        return Optional.of(saved);
+        if (!notices.isEmpty()) {
+            String name = e.getName(), venue = e.getVenue();
+            OffsetDateTime start = e.getStartTime(), end = e.getEndTime();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    email.sendWaitlistPromotions(name, venue, start, end, notices);
+                }
+            });
+        }
+        return promoted;
     }
 }
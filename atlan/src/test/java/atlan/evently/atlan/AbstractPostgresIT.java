@@ -0,0 +1,91 @@
+package atlan.evently.atlan;
+
+import atlan.evently.atlan.event.model.Event;
+import atlan.evently.atlan.event.repo.EventRepository;
+import atlan.evently.atlan.notification.EmailNotificationService;
+import atlan.evently.atlan.user.model.User;
+import atlan.evently.atlan.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+// src/test/java/.../AbstractPostgresIT.java
+// Base for the Postgres integration tests (the booking paths rely on partial indexes, CTEs and
+// FOR UPDATE, which H2 does not have). One container for the whole run: it is started once here
+// rather than per class, so the Spring context cached across IT classes keeps a live database.
+// Run with `mvn verify`; skipped when Docker is not available.
+@SpringBootTest(properties = {
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "spring.jpa.show-sql=false",
+        // no background promotion racing the assertions; tests trigger it themselves
+        "waitlist.promotion.sweep-ms=3600000",
+        "booking.seat-counter.reconcile.interval-ms=3600000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractPostgresIT {
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16");
+
+    static {
+        pg.start();
+    }
+
+    @MockitoBean
+    protected EmailNotificationService email;
+
+    @Autowired
+    protected UserService users;
+    @Autowired
+    protected EventRepository events;
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    // Tests share one database, so every user and event is unique to the test that made it
+    protected Long newUser() {
+        return users.register("u-" + UUID.randomUUID() + "@ex.com", "x", User.Role.USER).getId();
+    }
+
+    protected Long newEvent(int capacity) {
+        var now = OffsetDateTime.now();
+        Event e = new Event();
+        e.setName("E-" + UUID.randomUUID());
+        e.setVenue("V");
+        e.setStartTime(now.plusDays(1));
+        e.setEndTime(now.plusDays(1).plusHours(2));
+        e.setCapacity(capacity);
+        return events.save(e).getId();
+    }
+
+    protected int confirmedCount(Long eventId) {
+        return jdbc.queryForObject("select confirmed_count from events where id = ?", Integer.class, eventId);
+    }
+
+    protected int heldCount(Long eventId) {
+        return jdbc.queryForObject("select held_count from events where id = ?", Integer.class, eventId);
+    }
+
+    protected long activeBookings(Long eventId) {
+        return jdbc.queryForObject(
+                "select count(*) from bookings where event_id = ? and status = 'CONFIRMED'", Long.class, eventId);
+    }
+
+    protected static boolean await(Duration timeout, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) return true;
+            Thread.sleep(50);
+        }
+        return condition.getAsBoolean();
+    }
+}
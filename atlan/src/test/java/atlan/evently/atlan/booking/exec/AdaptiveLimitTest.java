@@ -0,0 +1,78 @@
+package atlan.evently.atlan.booking.exec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Keep the limit fully used and feed {@code n} samples of the given latency. */
+    private static void saturatedSamples(AdaptiveLimit limit, int n, long rttNanos) {
+        for (int i = 0; i < n; i++) {
+            while (limit.tryAcquire()) { }
+            limit.release(rttNanos, false);
+        }
+    }
+
+    @Test
+    void admitsUpToTheLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.cancel();
+        assertEquals(1, limit.inFlight());
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsToTheMaxWhileLatencyStaysAtTheBaseline() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 50);
+        saturatedSamples(limit, 300, FAST);
+        assertEquals(50, limit.limit());
+    }
+
+    @Test
+    void doesNotGrowWhileUnderused() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 1, 50);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST, false);
+        }
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        AdaptiveLimit limit = new AdaptiveLimit(4, 2, 50);
+        saturatedSamples(limit, 300, FAST);
+        assertEquals(50, limit.limit());
+
+        saturatedSamples(limit, 50, SLOW);
+        assertTrue(limit.limit() < 50, "limit " + limit.limit());
+        assertTrue(limit.limit() >= 2);
+    }
+
+    @Test
+    void dropHalvesTheLimitButNotBelowTheMin() {
+        AdaptiveLimit limit = new AdaptiveLimit(40, 8, 50);
+        assertTrue(limit.tryAcquire());
+        limit.release(FAST, true);
+        assertEquals(20, limit.limit());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST, true);
+        }
+        assertEquals(8, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+}
@@ -0,0 +1,80 @@
+package atlan.evently.atlan.booking.hold;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private final Map<String, Long> firedAt = new ConcurrentHashMap<>();
+    private HashedTimingWheel<String> wheel;
+
+    @AfterEach
+    void stop() {
+        if (wheel != null) wheel.stop();
+    }
+
+    private CountDownLatch start(long tickMillis, int wheelSize, int expected) {
+        CountDownLatch latch = new CountDownLatch(expected);
+        wheel = new HashedTimingWheel<>(tickMillis, wheelSize, "test-wheel", (List<String> items) -> {
+            long now = System.nanoTime();
+            items.forEach(item -> {
+                firedAt.put(item, now);
+                latch.countDown();
+            });
+        });
+        return latch;
+    }
+
+    @Test
+    void firesEveryItemNoEarlierThanItsDelay() throws InterruptedException {
+        CountDownLatch latch = start(10, 64, 3);
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("a", 30);
+        wheel.schedule("b", 80);
+        wheel.schedule("c", 0);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAt.get("a") - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(firedAt.get("b") - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(80));
+        assertTrue(firedAt.get("a") <= firedAt.get("b"));
+    }
+
+    @Test
+    void deadlineBeyondOneTurnWaitsForItsRound() throws InterruptedException {
+        // 4 buckets of 10 ms: one turn is 40 ms, so a 150 ms timer passes its bucket three times first
+        CountDownLatch latch = start(10, 4, 2);
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("late", 150);
+        wheel.schedule("early", 20);
+
+        Thread.sleep(100);
+        assertFalse(firedAt.containsKey("late"));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAt.get("late") - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertTrue(firedAt.get("early") < firedAt.get("late"));
+    }
+
+    @Test
+    void keepsTickingAfterTheCallbackThrows() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        wheel = new HashedTimingWheel<>(10, 8, "test-wheel", items -> {
+            if (items.contains("boom")) throw new IllegalStateException("callback failed");
+            latch.countDown();
+        });
+        wheel.schedule("boom", 0);
+        Thread.sleep(50);
+        wheel.schedule("after", 10);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
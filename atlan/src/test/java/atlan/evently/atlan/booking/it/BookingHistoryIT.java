@@ -0,0 +1,95 @@
+package atlan.evently.atlan.booking.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.repo.BookingHistoryView;
+import atlan.evently.atlan.booking.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// src/test/java/.../booking/it/BookingHistoryIT.java
+class BookingHistoryIT extends AbstractPostgresIT {
+
+    private static final Comparator<BookingHistoryView> NEWEST_FIRST =
+            Comparator.comparing(BookingHistoryView::bookedAt).thenComparing(BookingHistoryView::id).reversed();
+
+    @Autowired
+    BookingService bookings;
+
+    @Test
+    void without_cursor_or_limit_returns_the_whole_history() {
+        Long user = userWithFiveBookings();
+
+        BookingService.HistoryPage page = bookings.listUserBookings(user, null, null);
+
+        assertThat(page.items()).hasSize(5).isSortedAccordingTo(NEWEST_FIRST);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void pages_follow_the_cursor_without_gaps_or_repeats() {
+        Long user = userWithFiveBookings();
+        List<BookingHistoryView> all = bookings.listUserBookings(user, null, null).items();
+
+        List<BookingHistoryView> walked = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingService.HistoryPage page = bookings.listUserBookings(user, cursor, 2);
+            walked.addAll(page.items());
+            sizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // The group's seats share booked_at; the id tiebreak keeps them apart across page boundaries
+        assertThat(sizes).containsExactly(2, 2, 1);
+        assertThat(walked).extracting(BookingHistoryView::id)
+                .containsExactlyElementsOf(all.stream().map(BookingHistoryView::id).toList());
+    }
+
+    @Test
+    void limit_alone_paginates_from_the_newest() {
+        Long user = userWithFiveBookings();
+
+        BookingService.HistoryPage page = bookings.listUserBookings(user, null, 3);
+
+        assertThat(page.items()).hasSize(3);
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    void user_without_bookings_gets_an_empty_list() {
+        assertThat(bookings.listUserBookings(newUser(), null, null).items()).isEmpty();
+    }
+
+    @Test
+    void unknown_user_is_not_found() {
+        assertThatThrownBy(() -> bookings.listUserBookings(-1L, null, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("User not found");
+    }
+
+    @Test
+    void malformed_cursor_is_rejected() {
+        Long user = userWithFiveBookings();
+
+        assertThatThrownBy(() -> bookings.listUserBookings(user, "not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // A group of three (identical booked_at) and two single bookings on other events
+    private Long userWithFiveBookings() {
+        Long user = newUser();
+        bookings.createBooking(user, newEvent(5));
+        bookings.createGroupBooking(user, newEvent(5), 3);
+        bookings.createBooking(user, newEvent(5));
+        return user;
+    }
+}
@@ -0,0 +1,96 @@
+package atlan.evently.atlan.booking.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.service.BookingBulkCancelService;
+import atlan.evently.atlan.booking.service.BookingService;
+import atlan.evently.atlan.booking.service.SeatHoldService;
+import atlan.evently.atlan.booking.web.dto.BulkCancelResponse;
+import atlan.evently.atlan.event.model.Event;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// src/test/java/.../booking/it/BulkCancelIT.java
+class BulkCancelIT extends AbstractPostgresIT {
+
+    @Autowired
+    BookingBulkCancelService bulkCancel;
+    @Autowired
+    BookingService bookings;
+    @Autowired
+    SeatHoldService holds;
+    @Autowired
+    WaitlistTicketRepository tickets;
+
+    @Test
+    void cancels_everything_and_keeps_the_capacity() {
+        Long event = newEvent(10);
+        Long groupOwner = newUser(), single = newUser(), holder = newUser();
+        bookings.createGroupBooking(groupOwner, event, 2);
+        bookings.createBooking(single, event);
+        holds.hold(holder, event);
+        tickets.join(event, newUser(), OffsetDateTime.now()).orElseThrow();
+        tickets.join(event, newUser(), OffsetDateTime.now()).orElseThrow();
+
+        BulkCancelResponse r = bulkCancel.cancelAllForEvent(event);
+
+        assertThat(r.getCanceledBookings()).isEqualTo(3);
+        assertThat(r.getWaitlistCleared()).isEqualTo(2);
+        assertThat(r.getUsersNotified()).isEqualTo(2); // the group's seats share one recipient
+
+        Event e = events.findById(event).orElseThrow();
+        assertThat(e.getCanceledAt()).isNotNull();
+        assertThat(e.getCapacity()).isEqualTo(10);
+        assertThat(confirmedCount(event)).isZero();
+        assertThat(heldCount(event)).isZero();
+        assertThat(activeBookings(event)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from seat_holds where event_id = ?", Long.class, event)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from waitlist where event_id = ?", Long.class, event)).isZero();
+        WaitlistTicketRepository.Counters c = tickets.findCounters(List.of(event)).get(event);
+        assertThat(c.liveCount()).isZero();
+
+        verify(email, timeout(2000)).sendEventCancellation(eq(e.getName()), any(), argThat(to -> to.size() == 2));
+    }
+
+    @Test
+    void cancelled_event_takes_no_bookings_holds_or_joins() {
+        Long event = newEvent(10);
+        bulkCancel.cancelAllForEvent(event);
+
+        assertThatThrownBy(() -> bookings.createBooking(newUser(), event)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookings.createGroupBooking(newUser(), event, 2)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> holds.hold(newUser(), event)).isInstanceOf(IllegalStateException.class);
+        assertThat(tickets.join(event, newUser(), OffsetDateTime.now())).isEmpty();
+        assertThat(confirmedCount(event)).isZero();
+    }
+
+    @Test
+    void cancelled_event_leaves_the_upcoming_listing() {
+        Long event = newEvent(10);
+        bulkCancel.cancelAllForEvent(event);
+
+        assertThat(events.findUpcoming(OffsetDateTime.now(), PageRequest.of(0, 1000)).getContent())
+                .extracting(Event::getId)
+                .doesNotContain(event);
+    }
+
+    @Test
+    void unknown_event_is_not_found() {
+        assertThatThrownBy(() -> bulkCancel.cancelAllForEvent(-1L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Event not found");
+    }
+}
@@ -0,0 +1,109 @@
+package atlan.evently.atlan.booking.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.exec.GroupCommitBookingExecutor;
+import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.idempotency.repo.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// src/test/java/.../booking/it/GroupCommitBookingIT.java
+// Calls the executor directly: isEnabled (booking.group-commit.event-ids) is only consulted by the controller
+class GroupCommitBookingIT extends AbstractPostgresIT {
+
+    private static final String ENDPOINT = "POST /api/v1/bookings";
+
+    @Autowired
+    GroupCommitBookingExecutor groupCommit;
+    @Autowired
+    IdempotencyRecordRepository records;
+
+    @Test
+    void concurrent_batch_grants_exactly_the_free_seats() throws Exception {
+        Long event = newEvent(5);
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) userIds.add(newUser());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(userIds.size());
+        List<Future<ResponseEntity<BookingResponse>>> results = new ArrayList<>();
+        for (Long uid : userIds) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return groupCommit.submit(UUID.randomUUID().toString(), ENDPOINT, uid, event, "h");
+            }));
+        }
+        start.countDown();
+
+        int ok = 0, full = 0;
+        for (Future<ResponseEntity<BookingResponse>> f : results) {
+            try {
+                ResponseEntity<BookingResponse> r = f.get();
+                assertThat(r.getStatusCode().value()).isEqualTo(201);
+                assertThat(r.getBody().getId()).isNotNull();
+                ok++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("Event at capacity");
+                full++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(ok).isEqualTo(5);
+        assertThat(full).isEqualTo(15);
+        assertThat(confirmedCount(event)).isEqualTo(5);
+        assertThat(activeBookings(event)).isEqualTo(5);
+    }
+
+    @Test
+    void records_every_outcome_of_the_batch() {
+        Long event = newEvent(5);
+        Long user = newUser();
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<BookingResponse> r = groupCommit.submit(key, ENDPOINT, user, event, "h");
+
+        var rec = records.findByIdempotencyKeyAndEndpoint(key, ENDPOINT).orElseThrow();
+        assertThat(rec.getStatus()).isEqualTo("SUCCESS");
+        assertThat(rec.getBookingId()).isEqualTo(r.getBody().getId());
+        // Same key again: already in the store, handed back for the regular replay path
+        assertThat(groupCommit.submit(key, ENDPOINT, user, event, "h")).isNull();
+        assertThat(activeBookings(event)).isEqualTo(1);
+    }
+
+    @Test
+    void user_with_an_active_booking_is_rejected_without_a_seat() {
+        Long event = newEvent(5);
+        Long user = newUser();
+        groupCommit.submit(UUID.randomUUID().toString(), ENDPOINT, user, event, "h");
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> groupCommit.submit(key, ENDPOINT, user, event, "h"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Active booking already exists");
+
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(records.findByIdempotencyKeyAndEndpoint(key, ENDPOINT).orElseThrow().getResponseCode())
+                .isEqualTo(409);
+    }
+
+    @Test
+    void unknown_event_fails_every_request() {
+        assertThatThrownBy(() -> groupCommit.submit(UUID.randomUUID().toString(), ENDPOINT, newUser(), -1L, "h"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Event not found");
+    }
+}
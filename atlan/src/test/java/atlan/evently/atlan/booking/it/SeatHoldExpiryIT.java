@@ -0,0 +1,86 @@
+package atlan.evently.atlan.booking.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.service.SeatHoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// src/test/java/.../booking/it/SeatHoldExpiryIT.java
+// The scheduled sweep is pushed out so only the test drives it
+@TestPropertySource(properties = {
+        "booking.hold.ttl-seconds=1",
+        "booking.hold.tick-ms=50",
+        "booking.hold.sweep-interval-ms=3600000"
+})
+class SeatHoldExpiryIT extends AbstractPostgresIT {
+
+    @Autowired
+    SeatHoldService holds;
+
+    @Test
+    void expired_hold_gives_its_seat_back() throws Exception {
+        Long event = newEvent(1);
+        holds.hold(newUser(), event);
+        Long late = newUser();
+        assertThatThrownBy(() -> holds.hold(late, event))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Event at capacity");
+
+        assertThat(await(Duration.ofSeconds(5), () -> heldCount(event) == 0)).isTrue();
+
+        assertThat(liveHolds(event)).isZero();
+        assertThat(holds.hold(late, event).getId()).isNotNull();
+    }
+
+    @Test
+    void sweep_expires_more_holds_than_one_chunk() {
+        // More than SeatHoldService.EXPIRE_CHUNK (500), so the sweep runs several expiry transactions
+        Long event = newEvent(1000);
+        insertHolds(event, 1200, "now() - interval '1 minute'");
+
+        holds.sweepOrphans();
+
+        // The sweep takes up to 1000 per run; the rest goes on the next one
+        assertThat(liveHolds(event)).isEqualTo(200);
+        assertThat(heldCount(event)).isEqualTo(200);
+        holds.sweepOrphans();
+        assertThat(liveHolds(event)).isZero();
+        assertThat(heldCount(event)).isZero();
+    }
+
+    @Test
+    void rearmed_timers_expire_holds_the_wheel_never_saw() throws Exception {
+        // Written behind the service's back, like holds left by a node that restarted
+        Long event = newEvent(100);
+        insertHolds(event, 50, "now() + interval '1 second'");
+
+        holds.rearmTimers();
+
+        assertThat(await(Duration.ofSeconds(5), () -> liveHolds(event) == 0)).isTrue();
+        assertThat(heldCount(event)).isZero();
+    }
+
+    // n users with one hold each on the event, and the matching held_count
+    private void insertHolds(Long event, int n, String expiresAt) {
+        jdbc.update("""
+                with u as (
+                  insert into users (email, password_hash, role, created_at)
+                  select 'u-' || gen_random_uuid() || '@ex.com', 'x', 'USER', now() from generate_series(1, ?)
+                  returning id
+                )
+                insert into seat_holds (user_id, event_id, created_at, expires_at)
+                select u.id, ?, now(), %s from u
+                """.formatted(expiresAt), n, event);
+        jdbc.update("update events set held_count = held_count + ? where id = ?", n, event);
+    }
+
+    private long liveHolds(Long event) {
+        return jdbc.queryForObject("select count(*) from seat_holds where event_id = ?", Long.class, event);
+    }
+}
@@ -0,0 +1,99 @@
+package atlan.evently.atlan.booking.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.service.BookingService;
+import atlan.evently.atlan.booking.web.dto.BookingResponse;
+import atlan.evently.atlan.idempotency.model.IdempotencyRecord;
+import atlan.evently.atlan.idempotency.repo.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// src/test/java/.../booking/it/SingleStatementBookingIT.java
+class SingleStatementBookingIT extends AbstractPostgresIT {
+
+    private static final String ENDPOINT = "POST /api/v1/bookings";
+
+    @Autowired
+    BookingService bookings;
+    @Autowired
+    IdempotencyRecordRepository records;
+    @Autowired
+    ObjectMapper json;
+
+    @Test
+    void books_and_records_the_response_with_the_generated_id() throws Exception {
+        Long user = newUser();
+        Long event = newEvent(5);
+        String key = UUID.randomUUID().toString();
+
+        Booking b = bookings.createBookingSingleStatement(key, ENDPOINT, user, event, "h");
+
+        assertThat(b.getId()).isNotNull();
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(activeBookings(event)).isEqualTo(1);
+
+        IdempotencyRecord r = records.findByIdempotencyKeyAndEndpoint(key, ENDPOINT).orElseThrow();
+        assertThat(r.getStatus()).isEqualTo("SUCCESS");
+        assertThat(r.getResponseCode()).isEqualTo(201);
+        assertThat(r.getBookingId()).isEqualTo(b.getId());
+        BookingResponse stored = json.readValue(r.getResponseBody(), BookingResponse.class);
+        assertThat(stored.getId()).isEqualTo(b.getId());
+        assertThat(stored.getUserId()).isEqualTo(user);
+        assertThat(stored.getEventId()).isEqualTo(event);
+        assertThat(stored.getStatus()).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void known_key_writes_nothing() {
+        Long user = newUser();
+        Long event = newEvent(5);
+        String key = UUID.randomUUID().toString();
+        bookings.createBookingSingleStatement(key, ENDPOINT, user, event, "h");
+
+        assertThat(bookings.createBookingSingleStatement(key, ENDPOINT, user, event, "h")).isNull();
+
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(activeBookings(event)).isEqualTo(1);
+    }
+
+    @Test
+    void full_event_rolls_back_the_seat_and_stores_the_failure() {
+        Long event = newEvent(1);
+        bookings.createBookingSingleStatement(UUID.randomUUID().toString(), ENDPOINT, newUser(), event, "h");
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> bookings.createBookingSingleStatement(key, ENDPOINT, newUser(), event, "h"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Event at capacity");
+
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(activeBookings(event)).isEqualTo(1);
+        // Written after the rollback, in a transaction of its own, so a retry replays the 409
+        IdempotencyRecord r = records.findByIdempotencyKeyAndEndpoint(key, ENDPOINT).orElseThrow();
+        assertThat(r.getStatus()).isEqualTo("FAILURE");
+        assertThat(r.getResponseCode()).isEqualTo(409);
+    }
+
+    @Test
+    void second_booking_of_the_same_user_is_rejected() {
+        Long user = newUser();
+        Long event = newEvent(5);
+        bookings.createBookingSingleStatement(UUID.randomUUID().toString(), ENDPOINT, user, event, "h");
+
+        assertThatThrownBy(() -> bookings.createBookingSingleStatement(
+                UUID.randomUUID().toString(), ENDPOINT, user, event, "h"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Active booking already exists");
+
+        // The seat claimed by the rejected attempt went back with the rollback
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(activeBookings(event)).isEqualTo(1);
+    }
+}
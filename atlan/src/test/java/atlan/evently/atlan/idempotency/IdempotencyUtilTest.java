@@ -0,0 +1,39 @@
+package atlan.evently.atlan.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class IdempotencyUtilTest {
+
+    private static byte[] b(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void singlePartIsPlainSha256() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", IdempotencyUtil.sha256("abc"));
+        assertEquals(IdempotencyUtil.sha256("abc"), IdempotencyUtil.sha256(b("abc")));
+    }
+
+    @Test
+    void partsAreSeparatedByAZeroByte() {
+        assertEquals(IdempotencyUtil.sha256("ab\0c"), IdempotencyUtil.sha256(b("ab"), b("c")));
+        assertNotEquals(IdempotencyUtil.sha256("abc"), IdempotencyUtil.sha256(b("ab"), b("c")));
+    }
+
+    @Test
+    void movingTheBoundaryChangesTheHash() {
+        assertNotEquals(IdempotencyUtil.sha256(b("ab"), b("c")), IdempotencyUtil.sha256(b("a"), b("bc")));
+        assertNotEquals(IdempotencyUtil.sha256(b("a"), b("")), IdempotencyUtil.sha256(b(""), b("a")));
+    }
+
+    @Test
+    void emptyPartsStillCount() {
+        assertNotEquals(IdempotencyUtil.sha256(b("a")), IdempotencyUtil.sha256(b("a"), b("")));
+        assertEquals(IdempotencyUtil.sha256(b("a"), b("")), IdempotencyUtil.sha256(b("a"), b("")));
+    }
+}
@@ -0,0 +1,97 @@
+package atlan.evently.atlan.waitlist.it;
+
+import atlan.evently.atlan.AbstractPostgresIT;
+import atlan.evently.atlan.booking.model.Booking;
+import atlan.evently.atlan.booking.service.BookingService;
+import atlan.evently.atlan.waitlist.repo.WaitlistTicketRepository;
+import atlan.evently.atlan.waitlist.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// src/test/java/.../waitlist/it/WaitlistPromotionIT.java
+// Batch size below the free seats, so a promotion run takes several claim/insert rounds
+@TestPropertySource(properties = "waitlist.promotion.batch-size=2")
+class WaitlistPromotionIT extends AbstractPostgresIT {
+
+    @Autowired
+    WaitlistService waitlist;
+    @Autowired
+    WaitlistTicketRepository tickets;
+    @Autowired
+    BookingService bookings;
+
+    @Test
+    void promotes_the_head_in_ticket_order_up_to_the_free_seats() {
+        Long event = newEvent(5);
+        List<Long> queued = joinAll(event, 8);
+
+        List<Booking> promoted = waitlist.promoteAvailable(event, 100);
+
+        assertThat(promoted).extracting(b -> b.getUser().getId()).containsExactlyElementsOf(queued.subList(0, 5));
+        assertThat(confirmedCount(event)).isEqualTo(5);
+        assertThat(activeBookings(event)).isEqualTo(5);
+        assertThat(waitingUsers(event)).containsExactlyElementsOf(queued.subList(5, 8));
+        WaitlistTicketRepository.Counters c = tickets.findCounters(Set.of(event)).get(event);
+        assertThat(c.servedUpTo()).isEqualTo(5);
+        assertThat(c.liveCount()).isEqualTo(3);
+    }
+
+    @Test
+    void respects_the_max_per_run() {
+        Long event = newEvent(5);
+        List<Long> queued = joinAll(event, 4);
+
+        assertThat(waitlist.promoteAvailable(event, 3)).hasSize(3);
+
+        assertThat(confirmedCount(event)).isEqualTo(3);
+        assertThat(waitingUsers(event)).containsExactly(queued.get(3));
+    }
+
+    @Test
+    void queued_user_who_already_booked_is_dropped_and_the_seat_goes_to_the_next() {
+        Long event = newEvent(3);
+        List<Long> queued = joinAll(event, 4);
+        bookings.createBooking(queued.get(0), event);
+
+        List<Booking> promoted = waitlist.promoteAvailable(event, 100);
+
+        assertThat(promoted).extracting(b -> b.getUser().getId()).containsExactly(queued.get(1), queued.get(2));
+        assertThat(confirmedCount(event)).isEqualTo(3);
+        assertThat(activeBookings(event)).isEqualTo(3);
+        assertThat(waitingUsers(event)).containsExactly(queued.get(3));
+    }
+
+    @Test
+    void full_event_promotes_nobody() {
+        Long event = newEvent(1);
+        bookings.createBooking(newUser(), event);
+        List<Long> queued = joinAll(event, 2);
+
+        assertThat(waitlist.promoteAvailable(event, 100)).isEmpty();
+
+        assertThat(confirmedCount(event)).isEqualTo(1);
+        assertThat(waitingUsers(event)).containsExactlyElementsOf(queued);
+    }
+
+    private List<Long> joinAll(Long event, int n) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Long u = newUser();
+            tickets.join(event, u, OffsetDateTime.now()).orElseThrow();
+            ids.add(u);
+        }
+        return ids;
+    }
+
+    private List<Long> waitingUsers(Long event) {
+        return jdbc.queryForList("select user_id from waitlist where event_id = ? order by ticket", Long.class, event);
+    }
+}